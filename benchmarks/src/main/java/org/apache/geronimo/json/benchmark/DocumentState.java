@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.benchmark;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonPatchBuilder;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Deterministic order documents, small is a few hundred bytes, large is several megabytes.
+ */
+@State(Scope.Benchmark)
+public class DocumentState {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    public int orderCount;
+    public JsonObject document;
+    public String text;
+    public JsonObject modified;
+    public JsonArray patch;
+    public JsonObject mergePatch;
+    public JsonArray orders;
+
+    /** a leaf deep in the last order, the worst case for a linear walk */
+    public String deepPointer;
+    /** a shallow leaf next to the root */
+    public String shallowPointer;
+    /** a non existing member, target of the add benchmarks */
+    public String addPointer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (size) {
+            case "small":
+                orderCount = 3;
+                break;
+            case "medium":
+                orderCount = 200;
+                break;
+            case "large":
+                orderCount = 20000;
+                break;
+            default:
+                throw new IllegalArgumentException(size);
+        }
+
+        document = createDocument(orderCount, 0);
+        text = document.toString();
+        // re-read so the benchmarks work on what a reader would produce
+        document = Json.createReader(new StringReader(text)).readObject();
+        orders = document.getJsonObject("payload").getJsonArray("orders");
+        modified = createDocument(orderCount, 1);
+
+        final int last = orderCount - 1;
+        deepPointer = "/payload/orders/" + last + "/shipping/city";
+        shallowPointer = "/meta/version";
+        addPointer = "/payload/orders/" + last + "/flag";
+
+        patch = new JsonPatchBuilder()
+                .test(shallowPointer, 1)
+                .replace(shallowPointer, 2)
+                .add(addPointer, true)
+                .remove("/payload/orders/0/note")
+                .copy("/payload/lastCity", deepPointer)
+                .move("/meta/origin", "/meta/source")
+                .build();
+
+        mergePatch = Json.createObjectBuilder()
+                .add("meta", Json.createObjectBuilder().add("version", 2).addNull("source"))
+                .add("payload", Json.createObjectBuilder()
+                        .add("customer", Json.createObjectBuilder().add("tier", "gold")))
+                .build();
+    }
+
+    /**
+     * @param variant 0 for the base document, anything else changes a few fields spread over the document
+     */
+    public static JsonObject createDocument(final int orderCount, final int variant) {
+        final JsonArrayBuilder orders = Json.createArrayBuilder();
+        for (int i = 0; i < orderCount; i++) {
+            final boolean changed = variant != 0 && i % 50 == 0;
+            final JsonObjectBuilder order = Json.createObjectBuilder()
+                    .add("id", i)
+                    .add("sku", "SKU-" + (i * 31 % 997))
+                    .add("quantity", changed ? i % 7 + 1 : i % 7)
+                    .add("price", 9.99 + i % 100)
+                    .add("tags", Json.createArrayBuilder().add("tag-" + i % 5).add("tag-" + i % 3))
+                    .add("shipping", Json.createObjectBuilder()
+                            .add("street", i + " Main Street")
+                            .add("city", "City-" + i % 17)
+                            .add("zip", String.valueOf(10000 + i)));
+            if (!changed) {
+                order.add("note", "Please leave the parcel at the door, order number " + i);
+            }
+            orders.add(order);
+        }
+        return Json.createObjectBuilder()
+                .add("id", "document-" + orderCount)
+                .add("meta", Json.createObjectBuilder()
+                        .add("version", variant + 1)
+                        .add("source", "benchmark"))
+                .add("payload", Json.createObjectBuilder()
+                        .add("customer", Json.createObjectBuilder()
+                                .add("name", "ACME")
+                                .add("tier", variant == 0 ? "silver" : "bronze"))
+                        .add("orders", orders))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonPointer;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointerBenchmark {
+
+    @Benchmark
+    public JsonValue getValueDeep(final DocumentState state) {
+        return new JsonPointer(state.deepPointer).getValue(state.document);
+    }
+
+    @Benchmark
+    public JsonValue getValueShallow(final DocumentState state) {
+        return new JsonPointer(state.shallowPointer).getValue(state.document);
+    }
+
+    @Benchmark
+    public JsonValue structureGetValue(final DocumentState state) {
+        return state.document.getValue(state.deepPointer);
+    }
+
+    @Benchmark
+    public JsonStructure add(final DocumentState state) {
+        return new JsonPointer(state.addPointer).add(state.document, JsonValue.TRUE);
+    }
+
+    @Benchmark
+    public JsonStructure replace(final DocumentState state) {
+        return new JsonPointer(state.deepPointer).replace(state.document, JsonValue.NULL);
+    }
+
+    @Benchmark
+    public JsonStructure remove(final DocumentState state) {
+        return new JsonPointer(state.deepPointer).remove(state.document);
+    }
+}
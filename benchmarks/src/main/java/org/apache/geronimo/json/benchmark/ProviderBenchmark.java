@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.benchmark;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonWriter;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Provider lookup and the static {@link Json} facade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderBenchmark {
+
+    private static final String SMALL = "{\"id\":1,\"name\":\"geronimo\",\"tags\":[\"a\",\"b\"]}";
+
+    @Benchmark
+    public JsonProvider providerLookup() {
+        return JsonProvider.provider();
+    }
+
+    @Benchmark
+    public JsonObject createObjectBuilder() {
+        return Json.createObjectBuilder().add("id", 1).add("name", "geronimo").build();
+    }
+
+    @Benchmark
+    public JsonObject createReader() {
+        return Json.createReader(new StringReader(SMALL)).readObject();
+    }
+
+    @Benchmark
+    public String createWriter() {
+        final StringWriter out = new StringWriter();
+        final JsonWriter writer = Json.createWriter(out);
+        writer.write(JsonValues.SMALL_OBJECT);
+        writer.close();
+        return out.toString();
+    }
+
+    @Benchmark
+    public String createGenerator() {
+        final StringWriter out = new StringWriter();
+        final JsonGenerator generator = Json.createGenerator(out);
+        generator.writeStartObject().write("id", 1).write("name", "geronimo").writeEnd().close();
+        return out.toString();
+    }
+
+    @Benchmark
+    public Object createValue() {
+        return Json.createValue("geronimo");
+    }
+
+    private static final class JsonValues {
+        private static final JsonObject SMALL_OBJECT = Json.createReader(new StringReader(SMALL)).readObject();
+    }
+}
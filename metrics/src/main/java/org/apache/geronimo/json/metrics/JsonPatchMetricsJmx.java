@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.json.JsonException;
+import javax.json.JsonPatch;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exposes a {@link JsonPatchMetricsRegistry} as an MXBean.
+ */
+public class JsonPatchMetricsJmx implements JsonPatchMetricsMXBean {
+    public static final String DEFAULT_NAME = "org.apache.geronimo.json:type=JsonPatchMetrics";
+
+    private final JsonPatchMetricsRegistry registry;
+
+    public JsonPatchMetricsJmx(final JsonPatchMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Registers the registry in the platform MBean server under {@link #DEFAULT_NAME}.
+     *
+     * @return the name to unregister it with
+     */
+    public static ObjectName register(final JsonPatchMetricsRegistry registry) {
+        return register(registry, ManagementFactory.getPlatformMBeanServer(), DEFAULT_NAME);
+    }
+
+    public static ObjectName register(final JsonPatchMetricsRegistry registry, final MBeanServer server, final String name) {
+        try {
+            final ObjectName objectName = new ObjectName(name);
+            server.registerMBean(new JsonPatchMetricsJmx(registry), objectName);
+            return objectName;
+        } catch (final JMException e) {
+            throw new JsonException("Can't register " + name, e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for (final JsonPatch.Operation operation : JsonPatch.Operation.values()) {
+            counts.put(operation.operationName(), registry.getCount(operation));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getOperationTotalNanos() {
+        final Map<String, Long> nanos = new LinkedHashMap<>();
+        for (final JsonPatch.Operation operation : JsonPatch.Operation.values()) {
+            nanos.put(operation.operationName(), registry.getTotalNanos(operation));
+        }
+        return nanos;
+    }
+
+    @Override
+    public Map<String, long[]> getOperationLatencyHistograms() {
+        final Map<String, long[]> histograms = new LinkedHashMap<>();
+        for (final JsonPatch.Operation operation : JsonPatch.Operation.values()) {
+            histograms.put(operation.operationName(), registry.getLatencyHistogram(operation));
+        }
+        return histograms;
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return registry.getNodesVisited();
+    }
+
+    @Override
+    public long getSubtreesCopied() {
+        return registry.getSubtreesCopied();
+    }
+
+    @Override
+    public long getDiffCount() {
+        return registry.getDiffCount();
+    }
+
+    @Override
+    public long getDiffNanos() {
+        return registry.getDiffNanos();
+    }
+
+    @Override
+    public long getDiffSourceNodes() {
+        return registry.getDiffSourceNodes();
+    }
+
+    @Override
+    public long getDiffTargetNodes() {
+        return registry.getDiffTargetNodes();
+    }
+
+    @Override
+    public long getDiffOperations() {
+        return registry.getDiffOperations();
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.json.JsonPatch;
+import javax.json.spi.JsonPatchMetrics;
+
+/**
+ * In memory {@link JsonPatchMetrics}: counters and latency histograms per operation type plus diff totals,
+ * install it with {@link javax.json.spi.JsonMetrics#setPatchMetrics(JsonPatchMetrics)}.
+ *
+ * Latency histograms have one bucket per power of two nanoseconds: bucket i counts durations in [2^i, 2^(i+1)),
+ * bucket 0 also holds durations under a nanosecond.
+ */
+public class JsonPatchMetricsRegistry implements JsonPatchMetrics {
+    public static final int BUCKETS = 64;
+
+    private static final JsonPatch.Operation[] OPERATIONS = JsonPatch.Operation.values();
+
+    private final LongAdder[] counts = adders(OPERATIONS.length);
+    private final LongAdder[] totalNanos = adders(OPERATIONS.length);
+    private final AtomicLongArray histograms = new AtomicLongArray(OPERATIONS.length * BUCKETS);
+    private final LongAdder nodesVisited = new LongAdder();
+    private final LongAdder subtreesCopied = new LongAdder();
+
+    private final LongAdder diffCount = new LongAdder();
+    private final LongAdder diffNanos = new LongAdder();
+    private final LongAdder diffSourceNodes = new LongAdder();
+    private final LongAdder diffTargetNodes = new LongAdder();
+    private final LongAdder diffOperations = new LongAdder();
+
+    private static LongAdder[] adders(final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    @Override
+    public void operationApplied(final JsonPatch.Operation operation, final long elapsedNanos,
+                                 final int nodes, final int copies) {
+        final int ordinal = operation.ordinal();
+        counts[ordinal].increment();
+        totalNanos[ordinal].add(elapsedNanos);
+        histograms.incrementAndGet(ordinal * BUCKETS + bucket(elapsedNanos));
+        nodesVisited.add(nodes);
+        subtreesCopied.add(copies);
+    }
+
+    @Override
+    public void diffComputed(final int sourceNodes, final int targetNodes, final int operationCount,
+                             final long elapsedNanos) {
+        diffCount.increment();
+        diffNanos.add(elapsedNanos);
+        if (sourceNodes >= 0) {
+            diffSourceNodes.add(sourceNodes);
+        }
+        if (targetNodes >= 0) {
+            diffTargetNodes.add(targetNodes);
+        }
+        diffOperations.add(operationCount);
+    }
+
+    static int bucket(final long nanos) {
+        return nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    public long getCount(final JsonPatch.Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+    public long getTotalNanos(final JsonPatch.Operation operation) {
+        return totalNanos[operation.ordinal()].sum();
+    }
+
+    /**
+     * @return a copy of the latency histogram of the operation, see the class documentation for the buckets
+     */
+    public long[] getLatencyHistogram(final JsonPatch.Operation operation) {
+        final long[] histogram = new long[BUCKETS];
+        final int offset = operation.ordinal() * BUCKETS;
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = histograms.get(offset + i);
+        }
+        return histogram;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited.sum();
+    }
+
+    public long getSubtreesCopied() {
+        return subtreesCopied.sum();
+    }
+
+    public long getDiffCount() {
+        return diffCount.sum();
+    }
+
+    public long getDiffNanos() {
+        return diffNanos.sum();
+    }
+
+    public long getDiffSourceNodes() {
+        return diffSourceNodes.sum();
+    }
+
+    public long getDiffTargetNodes() {
+        return diffTargetNodes.sum();
+    }
+
+    public long getDiffOperations() {
+        return diffOperations.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i].reset();
+            totalNanos[i].reset();
+        }
+        for (int i = 0; i < histograms.length(); i++) {
+            histograms.set(i, 0);
+        }
+        nodesVisited.reset();
+        subtreesCopied.reset();
+        diffCount.reset();
+        diffNanos.reset();
+        diffSourceNodes.reset();
+        diffTargetNodes.reset();
+        diffOperations.reset();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonPatch;
+import javax.json.JsonPatchBuilder;
+import javax.json.JsonValue;
+import javax.json.spi.JsonMetrics;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonPatchMetricsRegistryTest {
+    private final JsonPatchMetricsRegistry registry = new JsonPatchMetricsRegistry();
+
+    @Before
+    public void install() {
+        JsonMetrics.setPatchMetrics(registry);
+    }
+
+    @After
+    public void uninstall() {
+        JsonMetrics.setPatchMetrics(null);
+    }
+
+    @Test
+    public void countsPerOperation() {
+        final JsonObject source = Json.createObjectBuilder().add("a", Json.createObjectBuilder().add("b", 1)).build();
+        final JsonObject target = new JsonPatchBuilder().add("/a/c", 2).replace("/a/b", 3).replace("/a/b", 4).apply(source);
+        JsonPatch.diff(source, target);
+
+        assertEquals(1, registry.getCount(JsonPatch.Operation.ADD));
+        assertEquals(2, registry.getCount(JsonPatch.Operation.REPLACE));
+        assertEquals(0, registry.getCount(JsonPatch.Operation.REMOVE));
+        assertEquals(3, registry.getNodesVisited());
+        assertEquals(2, registry.getSubtreesCopied());
+        long samples = 0;
+        for (final long bucket : registry.getLatencyHistogram(JsonPatch.Operation.REPLACE)) {
+            samples += bucket;
+        }
+        assertEquals(2, samples);
+
+        assertEquals(1, registry.getDiffCount());
+        assertEquals(3, registry.getDiffSourceNodes());
+        assertEquals(4, registry.getDiffTargetNodes());
+        assertEquals(2, registry.getDiffOperations());
+
+        registry.reset();
+        assertEquals(0, registry.getCount(JsonPatch.Operation.REPLACE));
+        assertEquals(0, registry.getDiffCount());
+    }
+
+    @Test
+    public void buckets() {
+        assertEquals(0, JsonPatchMetricsRegistry.bucket(0));
+        assertEquals(0, JsonPatchMetricsRegistry.bucket(1));
+        assertEquals(1, JsonPatchMetricsRegistry.bucket(2));
+        assertEquals(1, JsonPatchMetricsRegistry.bucket(3));
+        assertEquals(10, JsonPatchMetricsRegistry.bucket(1024));
+        assertEquals(62, JsonPatchMetricsRegistry.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void jmx() throws Exception {
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final ObjectName name = JsonPatchMetricsJmx.register(registry, server, JsonPatchMetricsJmx.DEFAULT_NAME);
+        new JsonPatchBuilder().add("/a", 1).apply(JsonValue.EMPTY_JSON_OBJECT);
+
+        assertEquals(0L, server.getAttribute(name, "DiffCount"));
+        final TabularData counts = (TabularData) server.getAttribute(name, "OperationCounts");
+        final CompositeData add = counts.get(new Object[] { "add" });
+        assertEquals(1L, add.get("value"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, registry.getCount(JsonPatch.Operation.ADD));
+    }
+}
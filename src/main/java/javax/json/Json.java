@@ -26,29 +26,75 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 public class Json {
+    // keys are weak and the factories only reference their provider weakly,
+    // so this cache never keeps a provider, or its class loader, reachable on its own
+    private static final Map<JsonProvider, JsonFactories> FACTORIES =
+            Collections.synchronizedMap(new WeakHashMap<JsonProvider, JsonFactories>());
+
+    // last used factories, avoids the synchronized map for the common single provider case
+    private static volatile WeakReference<JsonFactories> lastFactories = new WeakReference<>(null);
+
     private Json() {
         // no-op
     }
 
+    private static JsonFactories factories(final JsonProvider provider) {
+        JsonFactories f = lastFactories.get();
+        if (f == null || f.provider.get() != provider) {
+            // another provider (other context class loader or invalidated cache)
+            f = FACTORIES.computeIfAbsent(provider, JsonFactories::new);
+            lastFactories = new WeakReference<>(f);
+        }
+        return f;
+    }
+
+    private static JsonParserFactory parserFactory() {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).parserFactory(provider);
+    }
+
+    private static JsonGeneratorFactory generatorFactory() {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).generatorFactory(provider);
+    }
+
+    private static JsonReaderFactory readerFactory() {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).readerFactory(provider);
+    }
+
+    private static JsonWriterFactory writerFactory() {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).writerFactory(provider);
+    }
+
+    private static JsonBuilderFactory builderFactory() {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).builderFactory(provider);
+    }
+
     public static JsonParser createParser(Reader reader) {
-        return JsonProvider.provider().createParser(reader);
+        return parserFactory().createParser(reader);
     }
 
     public static JsonParser createParser(InputStream in) {
-        return JsonProvider.provider().createParser(in);
+        return parserFactory().createParser(in);
     }
 
     public static JsonGenerator createGenerator(Writer writer) {
-        return JsonProvider.provider().createGenerator(writer);
+        return generatorFactory().createGenerator(writer);
     }
 
     public static JsonGenerator createGenerator(OutputStream out) {
-        return JsonProvider.provider().createGenerator(out);
+        return generatorFactory().createGenerator(out);
     }
 
     public static JsonParserFactory createParserFactory(Map<String, ?> config) {
@@ -60,19 +106,19 @@ public class Json {
     }
 
     public static JsonWriter createWriter(Writer writer) {
-        return JsonProvider.provider().createWriter(writer);
+        return writerFactory().createWriter(writer);
     }
 
     public static JsonWriter createWriter(OutputStream out) {
-        return JsonProvider.provider().createWriter(out);
+        return writerFactory().createWriter(out);
     }
 
     public static JsonReader createReader(Reader reader) {
-        return JsonProvider.provider().createReader(reader);
+        return readerFactory().createReader(reader);
     }
 
     public static JsonReader createReader(InputStream in) {
-        return JsonProvider.provider().createReader(in);
+        return readerFactory().createReader(in);
     }
 
     public static JsonReaderFactory createReaderFactory(Map<String, ?> config) {
@@ -84,16 +130,59 @@ public class Json {
     }
 
     public static JsonArrayBuilder createArrayBuilder() {
-        return JsonProvider.provider().createArrayBuilder();
+        return builderFactory().createArrayBuilder();
     }
 
     public static JsonObjectBuilder createObjectBuilder() {
-        return JsonProvider.provider().createObjectBuilder();
+        return builderFactory().createObjectBuilder();
     }
 
     public static JsonBuilderFactory createBuilderFactory(Map<String, ?> config) {
         return JsonProvider.provider().createBuilderFactory(config);
     }
+
+    /**
+     * Returns a factory shared by all callers using an equal configuration,
+     * unlike {@link #createParserFactory(Map)} which creates a new one on each call.
+     * Only a bounded number of configurations (64 per factory type and provider) are shared,
+     * beyond that a new factory is returned.
+     */
+    public static JsonParserFactory getSharedParserFactory(Map<String, ?> config) {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).parserFactory(provider, config);
+    }
+
+    /**
+     * Returns a factory shared by all callers using an equal configuration.
+     */
+    public static JsonGeneratorFactory getSharedGeneratorFactory(Map<String, ?> config) {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).generatorFactory(provider, config);
+    }
+
+    /**
+     * Returns a factory shared by all callers using an equal configuration.
+     */
+    public static JsonReaderFactory getSharedReaderFactory(Map<String, ?> config) {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).readerFactory(provider, config);
+    }
+
+    /**
+     * Returns a factory shared by all callers using an equal configuration.
+     */
+    public static JsonWriterFactory getSharedWriterFactory(Map<String, ?> config) {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).writerFactory(provider, config);
+    }
+
+    /**
+     * Returns a factory shared by all callers using an equal configuration.
+     */
+    public static JsonBuilderFactory getSharedBuilderFactory(Map<String, ?> config) {
+        final JsonProvider provider = JsonProvider.provider();
+        return factories(provider).builderFactory(provider, config);
+    }
     
     //from here since JSONP 1.1
     
@@ -0,0 +1,541 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Array part of {@link JsonPatch#diff(JsonStructure, JsonStructure)}.
+ *
+ * After trimming the common head and tail, the longest common subsequence of the remaining elements is computed
+ * with Myers' linear space O((N+M)D) bisection. Around it, unmatched elements equal to an unmatched element
+ * on the other side become moves, unmatched elements between the same two kept ones are diffed pairwise,
+ * the rest are removed or added. Above {@link #COST_LIMIT} the array falls back to a diff by index.
+ */
+final class JsonArrayDiff {
+
+    /** maximum number of diagonal steps Myers may take before falling back to a diff by index */
+    static final long COST_LIMIT = 1L << 24;
+
+    private static final int KEPT = 0;
+    private static final int REPLACED = 1;
+    private static final int MOVED = 2;
+    private static final int ADDED_OR_REMOVED = 3;
+
+    private final JsonDiff differ;
+    private final JsonStructuralHashes hashes;
+    private final String path;
+    private final JsonArray source;
+    private final JsonArray target;
+    private final int prefix;
+
+    // element ids of the untrimmed middle part, equal values share an id
+    private final int[] a;
+    private final int[] b;
+    // matched index on the other side or -1
+    private final int[] sourceMatch;
+    private final int[] targetMatch;
+    private long cost;
+
+    private JsonArrayDiff(final JsonDiff differ, final String path, final JsonArray source, final JsonArray target,
+                          final int prefix, final int n, final int m) {
+        this.differ = differ;
+        this.hashes = differ.hashes;
+        this.path = path;
+        this.source = source;
+        this.target = target;
+        this.prefix = prefix;
+
+        final Map<JsonStructuralHashes.Key, Integer> ids = new HashMap<>();
+        a = new int[n];
+        b = new int[m];
+        for (int i = 0; i < n; i++) {
+            a[i] = id(ids, source.get(prefix + i));
+        }
+        for (int j = 0; j < m; j++) {
+            b[j] = id(ids, target.get(prefix + j));
+        }
+        sourceMatch = new int[n];
+        targetMatch = new int[m];
+        Arrays.fill(sourceMatch, -1);
+        Arrays.fill(targetMatch, -1);
+    }
+
+    private int id(final Map<JsonStructuralHashes.Key, Integer> ids, final JsonValue value) {
+        final JsonStructuralHashes.Key key = hashes.key(value);
+        final Integer existing = ids.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        final int id = ids.size();
+        ids.put(key, id);
+        return id;
+    }
+
+    static void diff(final JsonDiff differ, final String path, final JsonArray source, final JsonArray target,
+                     final JsonPatchSink sink) {
+        final JsonStructuralHashes hashes = differ.hashes;
+        final int sourceSize = source.size();
+        final int targetSize = target.size();
+
+        int prefix = 0;
+        final int min = Math.min(sourceSize, targetSize);
+        while (prefix < min && hashes.equal(source.get(prefix), target.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < min - prefix && hashes.equal(source.get(sourceSize - 1 - suffix), target.get(targetSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        final int n = sourceSize - prefix - suffix;
+        final int m = targetSize - prefix - suffix;
+        if (n == 0 && m == 0) {
+            return;
+        }
+
+        final JsonArrayDiff diff = new JsonArrayDiff(differ, path, source, target, prefix, n, m);
+        try {
+            diff.lcs(0, n, 0, m);
+        } catch (final CostLimitExceeded e) {
+            diff.diffByIndex(sink, n, m);
+            return;
+        }
+        diff.emit(sink, n, m);
+    }
+
+    private void diffByIndex(final JsonPatchSink sink, final int n, final int m) {
+        final int common = Math.min(n, m);
+        final int[] pairs = new int[common];
+        for (int i = 0; i < common; i++) {
+            pairs[i] = hashes.equal(source.get(prefix + i), target.get(prefix + i)) ? -1 : i;
+        }
+        final JsonDiff.Nested[] diffs = diffPairs(pairs);
+        for (int i = 0; i < common; i++) {
+            if (diffs[i] != null) {
+                diffs[i].emit(sink);
+            }
+        }
+        for (int i = n; i < m; i++) {
+            sink.add(path + "/" + (prefix + i), target.get(prefix + i));
+        }
+        for (int i = m; i < n; i++) {
+            sink.remove(path + "/" + (prefix + m));
+        }
+    }
+
+    /**
+     * @param sources for each target index of the middle part the source index to diff it with or -1
+     * @return the diffs by target index, null where there is nothing to diff
+     */
+    private JsonDiff.Nested[] diffPairs(final int[] sources) {
+        int count = 0;
+        for (final int s : sources) {
+            if (s >= 0) {
+                count++;
+            }
+        }
+        final String[] paths = new String[count];
+        final JsonValue[] sourceValues = new JsonValue[count];
+        final JsonValue[] targetValues = new JsonValue[count];
+        int next = 0;
+        for (int j = 0; j < sources.length; j++) {
+            if (sources[j] >= 0) {
+                paths[next] = path + "/" + (prefix + j);
+                sourceValues[next] = source.get(prefix + sources[j]);
+                targetValues[next] = target.get(prefix + j);
+                next++;
+            }
+        }
+
+        final JsonDiff.Nested[] diffs = differ.diff(paths, sourceValues, targetValues);
+        final JsonDiff.Nested[] byTarget = new JsonDiff.Nested[sources.length];
+        next = 0;
+        for (int j = 0; j < sources.length; j++) {
+            if (sources[j] >= 0) {
+                byTarget[j] = diffs[next++];
+            }
+        }
+        return byTarget;
+    }
+
+    private void match(final int i, final int j) {
+        sourceMatch[i] = j;
+        targetMatch[j] = i;
+    }
+
+    private void lcs(int aLo, int aHi, int bLo, int bHi) {
+        while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) {
+            match(aLo++, bLo++);
+        }
+        while (aLo < aHi && bLo < bHi && a[aHi - 1] == b[bHi - 1]) {
+            match(--aHi, --bHi);
+        }
+        if (aLo == aHi || bLo == bHi) {
+            return;
+        }
+        bisect(aLo, aHi, bLo, bHi);
+    }
+
+    /**
+     * Finds the middle snake of the edit graph of the two ranges and recurses on both halves.
+     */
+    private void bisect(final int aLo, final int aHi, final int bLo, final int bHi) {
+        final int n = aHi - aLo;
+        final int m = bHi - bLo;
+        final int maxD = (n + m + 1) / 2;
+        final int vOffset = maxD;
+        final int vLength = 2 * maxD + 2;
+        final int[] v1 = new int[vLength];
+        final int[] v2 = new int[vLength];
+        Arrays.fill(v1, -1);
+        Arrays.fill(v2, -1);
+        v1[vOffset + 1] = 0;
+        v2[vOffset + 1] = 0;
+        final int delta = n - m;
+        // if the total number of elements is odd the front path will collide with the reverse path
+        final boolean front = (delta & 1) != 0;
+        int k1start = 0;
+        int k1end = 0;
+        int k2start = 0;
+        int k2end = 0;
+
+        for (int d = 0; d < maxD; d++) {
+            cost += 2L * d + 2;
+            if (cost > COST_LIMIT) {
+                throw CostLimitExceeded.INSTANCE;
+            }
+
+            for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+                final int k1Offset = vOffset + k1;
+                int x1;
+                if (k1 == -d || (k1 != d && v1[k1Offset - 1] < v1[k1Offset + 1])) {
+                    x1 = v1[k1Offset + 1];
+                } else {
+                    x1 = v1[k1Offset - 1] + 1;
+                }
+                int y1 = x1 - k1;
+                while (x1 < n && y1 < m && a[aLo + x1] == b[bLo + y1]) {
+                    x1++;
+                    y1++;
+                }
+                v1[k1Offset] = x1;
+                if (x1 > n) {
+                    k1end += 2;
+                } else if (y1 > m) {
+                    k1start += 2;
+                } else if (front) {
+                    final int k2Offset = vOffset + delta - k1;
+                    if (k2Offset >= 0 && k2Offset < vLength && v2[k2Offset] != -1) {
+                        if (x1 >= n - v2[k2Offset]) {
+                            split(aLo, aHi, bLo, bHi, x1, y1);
+                            return;
+                        }
+                    }
+                }
+            }
+
+            for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+                final int k2Offset = vOffset + k2;
+                int x2;
+                if (k2 == -d || (k2 != d && v2[k2Offset - 1] < v2[k2Offset + 1])) {
+                    x2 = v2[k2Offset + 1];
+                } else {
+                    x2 = v2[k2Offset - 1] + 1;
+                }
+                int y2 = x2 - k2;
+                while (x2 < n && y2 < m && a[aHi - x2 - 1] == b[bHi - y2 - 1]) {
+                    x2++;
+                    y2++;
+                }
+                v2[k2Offset] = x2;
+                if (x2 > n) {
+                    k2end += 2;
+                } else if (y2 > m) {
+                    k2start += 2;
+                } else if (!front) {
+                    final int k1Offset = vOffset + delta - k2;
+                    if (k1Offset >= 0 && k1Offset < vLength && v1[k1Offset] != -1) {
+                        final int x1 = v1[k1Offset];
+                        final int y1 = vOffset + x1 - k1Offset;
+                        if (x1 >= n - x2) {
+                            split(aLo, aHi, bLo, bHi, x1, y1);
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+        // nothing in common
+    }
+
+    private void split(final int aLo, final int aHi, final int bLo, final int bHi, final int x, final int y) {
+        lcs(aLo, aLo + x, bLo, bLo + y);
+        lcs(aLo + x, aHi, bLo + y, bHi);
+    }
+
+    /**
+     * Replays the edit on a model of the middle part so every emitted index is valid when its operation applies.
+     */
+    private void emit(final JsonPatchSink sink, final int n, final int m) {
+        final int[] sourceRole = new int[n];
+        final int[] targetRole = new int[m];
+        // for non added targets the source they come from
+        final int[] targetSource = new int[m];
+        // for moved sources the target they go to
+        final int[] movedTarget = new int[n];
+        Arrays.fill(sourceRole, ADDED_OR_REMOVED);
+        Arrays.fill(targetRole, ADDED_OR_REMOVED);
+        for (int j = 0; j < m; j++) {
+            if (targetMatch[j] >= 0) {
+                targetRole[j] = KEPT;
+                targetSource[j] = targetMatch[j];
+                sourceRole[targetMatch[j]] = KEPT;
+            }
+        }
+
+        // an unmatched element equal to an unmatched element on the other side relocated
+        final Map<Integer, Deque<Integer>> unmatchedSources = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (sourceMatch[i] < 0) {
+                unmatchedSources.computeIfAbsent(a[i], k -> new ArrayDeque<>()).add(i);
+            }
+        }
+        for (int j = 0; j < m; j++) {
+            if (targetMatch[j] < 0) {
+                final Deque<Integer> candidates = unmatchedSources.get(b[j]);
+                if (candidates != null && !candidates.isEmpty()) {
+                    final int i = candidates.poll();
+                    sourceRole[i] = MOVED;
+                    targetRole[j] = MOVED;
+                    targetSource[j] = i;
+                    movedTarget[i] = j;
+                }
+            }
+        }
+
+        // remaining unmatched elements between the same kept elements are diffed pairwise
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            int ti = i;
+            int tj = j;
+            while (ti < n && sourceMatch[ti] < 0) {
+                ti++;
+            }
+            while (tj < m && targetMatch[tj] < 0) {
+                tj++;
+            }
+            int si = i;
+            int sj = j;
+            while (true) {
+                while (si < ti && sourceRole[si] != ADDED_OR_REMOVED) {
+                    si++;
+                }
+                while (sj < tj && targetRole[sj] != ADDED_OR_REMOVED) {
+                    sj++;
+                }
+                if (si == ti || sj == tj) {
+                    break;
+                }
+                sourceRole[si] = REPLACED;
+                targetRole[sj] = REPLACED;
+                targetSource[sj] = si;
+                si++;
+                sj++;
+            }
+            i = ti + 1;
+            j = tj + 1;
+        }
+
+        final int[] replaced = new int[m];
+        for (j = 0; j < m; j++) {
+            replaced[j] = targetRole[j] == REPLACED ? targetSource[j] : -1;
+        }
+        final JsonDiff.Nested[] diffs = diffPairs(replaced);
+
+        // the target prefix [0, j) is final so only the elements still to place are modelled,
+        // the one at rank r in remaining is at index j + r
+        final Remaining remaining = new Remaining(n);
+        for (int k = n - 1; k >= 0; k--) {
+            if (sourceRole[k] == ADDED_OR_REMOVED) {
+                sink.remove(path + "/" + (prefix + k));
+            } else {
+                remaining.insert(k);
+            }
+        }
+
+        final boolean[] parked = new boolean[n];
+        for (j = 0; j < m; j++) {
+            final int role = targetRole[j];
+
+            // a relocated element still in the way moves once, right in front of the kept element following its target
+            while (!remaining.isEmpty()) {
+                final int moving = remaining.head();
+                if (sourceRole[moving] != MOVED || parked[moving]
+                        || (role != ADDED_OR_REMOVED && moving == targetSource[j])) {
+                    break;
+                }
+                parked[moving] = true;
+                int anchor = -1;
+                for (int t = movedTarget[moving] + 1; t < m && anchor < 0; t++) {
+                    if (targetRole[t] == KEPT || targetRole[t] == REPLACED) {
+                        anchor = targetSource[t];
+                    }
+                }
+                // ranks once moving left the head
+                final int destination = j + (anchor < 0 ? remaining.size() : remaining.rank(anchor)) - 1;
+                if (destination <= j) {
+                    break;
+                }
+                sink.move(path + "/" + (prefix + destination), path + "/" + (prefix + j));
+                remaining.remove(moving);
+                remaining.park(moving, anchor < 0 ? n : anchor);
+            }
+
+            if (role == ADDED_OR_REMOVED) {
+                sink.add(path + "/" + (prefix + j), target.get(prefix + j));
+                continue;
+            }
+
+            final int s = targetSource[j];
+            final int position = j + remaining.rank(s);
+            if (position != j) {
+                sink.move(path + "/" + (prefix + j), path + "/" + (prefix + position));
+            }
+            remaining.remove(s);
+
+            if (role == REPLACED) {
+                diffs[j].emit(sink);
+            }
+        }
+    }
+
+    /**
+     * Source elements still to place, in their current order. Elements which were not relocated keep their source
+     * order, a relocated one sits right before the element it was moved in front of (its anchor, n for the end) after
+     * the ones relocated there earlier. A Fenwick tree counts per source index the element and the ones relocated
+     * in front of it, so ranks, insertions and removals are O(log n) and only relocations in front of the same anchor
+     * are scanned linearly.
+     */
+    private static final class Remaining {
+        private final int[] tree;
+        private final boolean[] present;
+        private final int[] anchors;
+        private final List<List<Integer>> relocated;
+        private int size;
+
+        private Remaining(final int n) {
+            tree = new int[n + 2];
+            present = new boolean[n];
+            anchors = new int[n];
+            Arrays.fill(anchors, -1);
+            relocated = new ArrayList<>(Collections.nCopies(n + 1, (List<Integer>) null));
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void insert(final int element) {
+            present[element] = true;
+            update(element, 1);
+        }
+
+        private void park(final int element, final int anchor) {
+            List<Integer> bucket = relocated.get(anchor);
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                relocated.set(anchor, bucket);
+            }
+            bucket.add(element);
+            anchors[element] = anchor;
+            update(anchor, 1);
+        }
+
+        private void remove(final int element) {
+            final int anchor = anchors[element];
+            if (anchor >= 0) {
+                relocated.get(anchor).remove(Integer.valueOf(element));
+                anchors[element] = -1;
+                update(anchor, -1);
+            } else {
+                present[element] = false;
+                update(element, -1);
+            }
+        }
+
+        private int rank(final int element) {
+            final int anchor = anchors[element];
+            if (anchor >= 0) {
+                return prefixSum(anchor) + relocated.get(anchor).indexOf(element);
+            }
+            final List<Integer> bucket = relocated.get(element);
+            return prefixSum(element) + (bucket == null ? 0 : bucket.size());
+        }
+
+        private int head() {
+            // lowest index with a non zero count
+            int index = 0;
+            for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+                if (index + step < tree.length && tree[index + step] == 0) {
+                    index += step;
+                }
+            }
+            final List<Integer> bucket = relocated.get(index);
+            return bucket != null && !bucket.isEmpty() ? bucket.get(0) : index;
+        }
+
+        // sum of the counts of the indices below index
+        private int prefixSum(final int index) {
+            int sum = 0;
+            for (int i = index; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        private void update(final int index, final int delta) {
+            size += delta;
+            for (int i = index + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+    }
+
+    private static final class CostLimitExceeded extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private static final CostLimitExceeded INSTANCE = new CostLimitExceeded();
+
+        private CostLimitExceeded() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes the JSON Patch turning one value into another, see {@link JsonPatch#diff(JsonStructure, JsonStructure)}.
+ *
+ * Operations go straight to a {@link JsonPatchSink}. Each level first compares its children, then prepares the diffs of
+ * the changed ones through {@link #diff(String[], JsonValue[], JsonValue[])} and emits them in place with its own
+ * operations, so the nested diffs of one level are independent of each other.
+ */
+class JsonDiff {
+    final JsonStructuralHashes hashes;
+
+    JsonDiff(final JsonStructuralHashes hashes) {
+        this.hashes = hashes;
+    }
+
+    void diff(final String path, final JsonValue source, final JsonValue target, final JsonPatchSink sink) {
+        if (source instanceof JsonObject && target instanceof JsonObject) {
+            diff(path, source.asJsonObject(), target.asJsonObject(), sink);
+        } else if (source instanceof JsonArray && target instanceof JsonArray) {
+            JsonArrayDiff.diff(this, path, source.asJsonArray(), target.asJsonArray(), sink);
+        } else {
+            sink.replace(path, target);
+        }
+    }
+
+    /**
+     * @return for each pair of values, in the same order, the emitter of its diff
+     */
+    Nested[] diff(final String[] paths, final JsonValue[] sources, final JsonValue[] targets) {
+        final Nested[] diffs = new Nested[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            final String path = paths[i];
+            final JsonValue source = sources[i];
+            final JsonValue target = targets[i];
+            diffs[i] = sink -> diff(path, source, target, sink);
+        }
+        return diffs;
+    }
+
+    private void diff(final String path, final JsonObject source, final JsonObject target, final JsonPatchSink sink) {
+        final Set<String> allKeys = new HashSet<>(source.keySet());
+        allKeys.addAll(target.keySet());
+
+        final List<String> changed = new ArrayList<>();
+        for (final String key : allKeys) {
+            final JsonValue sv = source.get(key);
+            final JsonValue tv = target.get(key);
+            if (sv != null && tv != null && !hashes.equal(sv, tv)) {
+                changed.add(key);
+            }
+        }
+        final String[] paths = new String[changed.size()];
+        final JsonValue[] sources = new JsonValue[paths.length];
+        final JsonValue[] targets = new JsonValue[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            final String key = changed.get(i);
+            paths[i] = path + "/" + JsonPointer.escape(key);
+            sources[i] = source.get(key);
+            targets[i] = target.get(key);
+        }
+        final Nested[] diffs = diff(paths, sources, targets);
+
+        int next = 0;
+        for (final String key : allKeys) {
+            if (target.containsKey(key)) {
+                if (!source.containsKey(key)) {
+                    sink.add(path + "/" + JsonPointer.escape(key), target.get(key));
+                } else if (next < diffs.length && changed.get(next).equals(key)) {
+                    diffs[next++].emit(sink);
+                }
+            } else {
+                sink.remove(path + "/" + JsonPointer.escape(key));
+            }
+        }
+    }
+
+    /**
+     * The diff of a pair of values, emitted when its turn comes.
+     */
+    interface Nested {
+        void emit(JsonPatchSink sink);
+    }
+}
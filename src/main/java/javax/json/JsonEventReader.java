@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Skips or materializes the value a {@link JsonParser} just started, falling back on plain events
+ * for JSON-P 1.0 parsers which don't support skipping or getValue().
+ */
+final class JsonEventReader {
+    private final JsonParser parser;
+    private boolean nativeSkip = true;
+    private boolean nativeGetValue = true;
+
+    JsonEventReader(final JsonParser parser) {
+        this.parser = parser;
+    }
+
+    JsonParser parser() {
+        return parser;
+    }
+
+    /**
+     * @param event the first event of the value to skip
+     */
+    void skip(final Event event) {
+        if (event != Event.START_OBJECT && event != Event.START_ARRAY) {
+            return;
+        }
+        if (nativeSkip) {
+            try {
+                if (event == Event.START_OBJECT) {
+                    parser.skipObject();
+                } else {
+                    parser.skipArray();
+                }
+                return;
+            } catch (final UnsupportedOperationException uoe) {
+                nativeSkip = false;
+            }
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                default:
+                    // no-op
+            }
+        }
+    }
+
+    /**
+     * @param event the first event of the value to read
+     */
+    JsonValue readValue(final Event event) {
+        if (nativeGetValue) {
+            try {
+                return parser.getValue();
+            } catch (final UnsupportedOperationException uoe) {
+                nativeGetValue = false;
+            }
+        }
+        switch (event) {
+            case START_OBJECT: {
+                final JsonObjectBuilder builder = Json.createObjectBuilder();
+                while (parser.next() != Event.END_OBJECT) {
+                    final String key = parser.getString();
+                    builder.add(key, readValue(parser.next()));
+                }
+                return builder.build();
+            }
+            case START_ARRAY: {
+                final JsonArrayBuilder builder = Json.createArrayBuilder();
+                Event next;
+                while ((next = parser.next()) != Event.END_ARRAY) {
+                    builder.add(readValue(next));
+                }
+                return builder.build();
+            }
+            case VALUE_STRING:
+                return Json.createValue(parser.getString());
+            case VALUE_NUMBER:
+                return Json.createValue(parser.getBigDecimal());
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            default:
+                throw new JsonException("Unexpected event " + event);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Factories shared by the {@link Json} facade for a single provider.
+ * Factories are thread safe so they are created lazily once and reused,
+ * a concurrent first access may create a factory twice which is harmless.
+ *
+ * The provider is only weakly referenced and passed to each call instead, so {@link Json} can key these factories
+ * weakly by provider without pinning it (and its class loader) itself.
+ * At most {@link #MAX_SHARED} configurations are shared per factory type, further ones get a new factory per call
+ * like the create methods.
+ */
+final class JsonFactories {
+    static final int MAX_SHARED = 64;
+
+    private static final Map<String, ?> NO_CONFIG = Collections.emptyMap();
+
+    final WeakReference<JsonProvider> provider;
+
+    private volatile JsonReaderFactory readerFactory;
+    private volatile JsonWriterFactory writerFactory;
+    private volatile JsonParserFactory parserFactory;
+    private volatile JsonGeneratorFactory generatorFactory;
+    private volatile JsonBuilderFactory builderFactory;
+
+    private final ConcurrentMap<Map<String, ?>, JsonReaderFactory> readerFactories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Map<String, ?>, JsonWriterFactory> writerFactories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Map<String, ?>, JsonParserFactory> parserFactories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Map<String, ?>, JsonGeneratorFactory> generatorFactories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Map<String, ?>, JsonBuilderFactory> builderFactories = new ConcurrentHashMap<>();
+
+    JsonFactories(final JsonProvider provider) {
+        this.provider = new WeakReference<>(provider);
+    }
+
+    JsonReaderFactory readerFactory(final JsonProvider provider) {
+        JsonReaderFactory f = readerFactory;
+        if (f == null) {
+            f = provider.createReaderFactory(NO_CONFIG);
+            readerFactory = f;
+        }
+        return f;
+    }
+
+    JsonWriterFactory writerFactory(final JsonProvider provider) {
+        JsonWriterFactory f = writerFactory;
+        if (f == null) {
+            f = provider.createWriterFactory(NO_CONFIG);
+            writerFactory = f;
+        }
+        return f;
+    }
+
+    JsonParserFactory parserFactory(final JsonProvider provider) {
+        JsonParserFactory f = parserFactory;
+        if (f == null) {
+            f = provider.createParserFactory(NO_CONFIG);
+            parserFactory = f;
+        }
+        return f;
+    }
+
+    JsonGeneratorFactory generatorFactory(final JsonProvider provider) {
+        JsonGeneratorFactory f = generatorFactory;
+        if (f == null) {
+            f = provider.createGeneratorFactory(NO_CONFIG);
+            generatorFactory = f;
+        }
+        return f;
+    }
+
+    JsonBuilderFactory builderFactory(final JsonProvider provider) {
+        JsonBuilderFactory f = builderFactory;
+        if (f == null) {
+            f = provider.createBuilderFactory(NO_CONFIG);
+            builderFactory = f;
+        }
+        return f;
+    }
+
+    JsonReaderFactory readerFactory(final JsonProvider provider, final Map<String, ?> config) {
+        if (config == null || config.isEmpty()) {
+            return readerFactory(provider);
+        }
+        return shared(readerFactories, config, provider::createReaderFactory);
+    }
+
+    JsonWriterFactory writerFactory(final JsonProvider provider, final Map<String, ?> config) {
+        if (config == null || config.isEmpty()) {
+            return writerFactory(provider);
+        }
+        return shared(writerFactories, config, provider::createWriterFactory);
+    }
+
+    JsonParserFactory parserFactory(final JsonProvider provider, final Map<String, ?> config) {
+        if (config == null || config.isEmpty()) {
+            return parserFactory(provider);
+        }
+        return shared(parserFactories, config, provider::createParserFactory);
+    }
+
+    JsonGeneratorFactory generatorFactory(final JsonProvider provider, final Map<String, ?> config) {
+        if (config == null || config.isEmpty()) {
+            return generatorFactory(provider);
+        }
+        return shared(generatorFactories, config, provider::createGeneratorFactory);
+    }
+
+    JsonBuilderFactory builderFactory(final JsonProvider provider, final Map<String, ?> config) {
+        if (config == null || config.isEmpty()) {
+            return builderFactory(provider);
+        }
+        return shared(builderFactories, config, provider::createBuilderFactory);
+    }
+
+    private static <F> F shared(final ConcurrentMap<Map<String, ?>, F> factories, final Map<String, ?> config,
+                                final Function<Map<String, ?>, F> creator) {
+        final F f = factories.get(config);
+        if (f != null) {
+            return f;
+        }
+        if (factories.size() >= MAX_SHARED) {
+            // likely per call configurations, caching them would only grow the map
+            return creator.apply(config);
+        }
+        // snapshot the config so later changes of the caller map don't corrupt the key
+        return factories.computeIfAbsent(Collections.unmodifiableMap(new HashMap<>(config)), creator);
+    }
+}
@@ -18,6 +18,9 @@
 package javax.json;
 
 import javax.json.JsonValue.ValueType;
+import javax.json.spi.JsonTrace;
+import javax.json.spi.JsonTraceListener;
+import javax.json.spi.JsonTraceListener.Operation;
 
 /**
  * 
@@ -50,7 +53,20 @@ public class JsonMergePatch {
 
      */
 
-    public static JsonValue mergePatch(JsonValue target, final JsonValue patch) {
+    public static JsonValue mergePatch(final JsonValue target, final JsonValue patch) {
+        final JsonTraceListener listener = JsonTrace.getListener();
+        if (listener == null) {
+            return mergePatch0(target, patch);
+        }
+
+        final long start = System.nanoTime();
+        final JsonValue result = mergePatch0(target, patch);
+        listener.trace(Operation.MERGE_PATCH, null, patch.getValueType() == ValueType.OBJECT ? patch.asJsonObject().size() : 1,
+                System.nanoTime() - start);
+        return result;
+    }
+
+    private static JsonValue mergePatch0(JsonValue target, final JsonValue patch) {
         if (patch.getValueType() == ValueType.OBJECT) {
             if (target.getValueType() != ValueType.OBJECT) {
                 target = JsonValue.EMPTY_JSON_OBJECT;
@@ -66,9 +82,9 @@ public class JsonMergePatch {
                     }
                 } else {
                     if (targetObject.containsKey(key)) {
-                        builder.add(key, mergePatch(targetObject.get(key), value));
+                        builder.add(key, mergePatch0(targetObject.get(key), value));
                     } else {
-                        builder.add(key, mergePatch(JsonValue.EMPTY_JSON_OBJECT, value));
+                        builder.add(key, mergePatch0(JsonValue.EMPTY_JSON_OBJECT, value));
                     }
 
                 }
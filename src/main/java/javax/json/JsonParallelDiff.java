@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@link JsonDiff} forking the nested diffs of a level when the values are large enough to be worth a task.
+ *
+ * Every task gets its own hash table reading through to the one of its parent, a table is never written
+ * while tasks reading it run. Tasks record their operations which are replayed in order,
+ * so the patch is the same as the sequential one.
+ */
+final class JsonParallelDiff extends JsonDiff {
+    /** minimum number of values, source and target together, a nested diff needs to run in its own task */
+    static final int THRESHOLD = 8192;
+
+    JsonParallelDiff(final JsonStructuralHashes hashes) {
+        super(hashes);
+    }
+
+    @Override
+    Nested[] diff(final String[] paths, final JsonValue[] sources, final JsonValue[] targets) {
+        int large = 0;
+        for (int i = 0; i < paths.length; i++) {
+            if (hashes.size(sources[i]) + hashes.size(targets[i]) >= THRESHOLD) {
+                large++;
+            }
+        }
+        if (large == 0 || paths.length == 1) {
+            // nothing to run next to it, go on in this thread
+            return super.diff(paths, sources, targets);
+        }
+
+        final Nested[] diffs = new Nested[paths.length];
+        // small diffs run in this thread when emitted, on their own table since tasks may be reading this one
+        final JsonDiff local = new JsonParallelDiff(new JsonStructuralHashes(hashes));
+        for (int i = 0; i < paths.length; i++) {
+            final String path = paths[i];
+            final JsonValue source = sources[i];
+            final JsonValue target = targets[i];
+            if (hashes.size(source) + hashes.size(target) >= THRESHOLD) {
+                final Task task = new Task(hashes, path, source, target);
+                task.fork();
+                diffs[i] = sink -> {
+                    for (final JsonPatchStep operation : task.join()) {
+                        sink.operation(operation.operation, operation.path, operation.from, operation.value);
+                    }
+                };
+            } else {
+                diffs[i] = sink -> local.diff(path, source, target, sink);
+            }
+        }
+        return diffs;
+    }
+
+    static ForkJoinTask<List<JsonPatchStep>> task(final JsonStructure source, final JsonStructure target) {
+        return new Task(null, "", source, target);
+    }
+
+    private static final class Task extends RecursiveTask<List<JsonPatchStep>> {
+        private static final long serialVersionUID = 1L;
+
+        private final JsonStructuralHashes parent;
+        private final String path;
+        private final JsonValue source;
+        private final JsonValue target;
+
+        private Task(final JsonStructuralHashes parent, final String path, final JsonValue source, final JsonValue target) {
+            this.parent = parent;
+            this.path = path;
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        protected List<JsonPatchStep> compute() {
+            final List<JsonPatchStep> operations = new ArrayList<>();
+            new JsonParallelDiff(new JsonStructuralHashes(parent)).diff(path, source, target,
+                    (op, opPath, from, value) -> operations.add(new JsonPatchStep(op, opPath, from, value)));
+            return operations;
+        }
+    }
+}
@@ -17,14 +17,23 @@
 
 package javax.json;
 
-import java.io.StringReader;
-import java.io.ObjectInputStream.GetField;
-import java.util.HashSet;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
-import javax.naming.PartialResultException;
+import javax.json.spi.JsonMetrics;
+import javax.json.spi.JsonPatchMetrics;
+import javax.json.spi.JsonTrace;
+import javax.json.spi.JsonTraceListener;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
 
 /**
  * 
@@ -44,25 +53,169 @@ public final class JsonPatch {
     static final String VALUE = "value";
     static final String FROM = "from";
     
-    private final JsonArray patch;
+    public enum Operation {
+        ADD(JsonPatch.ADD), REMOVE(JsonPatch.REMOVE), REPLACE(JsonPatch.REPLACE),
+        MOVE(JsonPatch.MOVE), COPY(JsonPatch.COPY), TEST(JsonPatch.TEST);
+
+        private final String operationName;
+
+        Operation(final String operationName) {
+            this.operationName = operationName;
+        }
+
+        public String operationName() {
+            return operationName;
+        }
+
+        public static Operation fromOperationName(final String operationName) {
+            for (final Operation operation : values()) {
+                if (operation.operationName.equals(operationName)) {
+                    return operation;
+                }
+            }
+            throw new JsonException("unknown op '" + operationName + "'");
+        }
+    }
+
+    // built from the operations when the patch was not created from its JSON form
+    private volatile JsonArray patch;
+    private final JsonPatchOperation[] operations;
     
+    /**
+     * @throws JsonException if the patch is not a valid JSON Patch document
+     */
     public JsonPatch(JsonArray patch) {
        this.patch = Objects.requireNonNull(patch);
+
+       // parse and validate once, apply only executes compiled operations
+       operations = new JsonPatchOperation[patch.size()];
+       int i = 0;
+       for (JsonValue patchLine : patch) {
+           operations[i++] = JsonPatchOperation.compile(patchLine);
+       }
+    }
+
+    JsonPatch(JsonPatchOperation[] operations) {
+        this.operations = operations;
+    }
+
+    private JsonArray patch() {
+        JsonArray result = patch;
+        if (result == null) {
+            final JsonArrayBuilder builder = Json.createArrayBuilder();
+            for (JsonPatchOperation operation : operations) {
+                builder.add(operation.toJson());
+            }
+            result = builder.build();
+            patch = result;
+        }
+        return result;
+    }
+
+    /**
+     * Encodes this patch in a compact binary form: one byte op codes, pointers sharing a per patch dictionary
+     * of prefixes with array indices as varints, and values in a tagged binary form.
+     *
+     * @see #fromBinary(byte[])
+     */
+    public byte[] toBinary() {
+        return JsonPatchCodec.encode(operations);
+    }
+
+    /**
+     * @see #toBinary()
+     */
+    public void toBinary(OutputStream out) {
+        try {
+            JsonPatchCodec.encode(operations, out);
+        } catch (IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes a patch written by {@link #toBinary()} straight to its compiled form.
+     *
+     * @throws JsonException if the data is not a valid binary patch
+     */
+    public static JsonPatch fromBinary(byte[] data) {
+        return fromBinary(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * @see #fromBinary(byte[])
+     */
+    public static JsonPatch fromBinary(InputStream in) {
+        try {
+            return new JsonPatch(JsonPatchCodec.decode(in));
+        } catch (IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rewrites this patch into an equivalent one with fewer operations: repeated replaces of a path collapse,
+     * operations below a value added or replaced earlier are merged into that value and a copy followed by the
+     * remove of its source becomes a move. Operations are only combined when the ones in between can't observe
+     * the difference.
+     *
+     * @return the optimized patch, it has the same effect on any target this patch applies to,
+     * this patch itself if no operation could be combined
+     */
+    public JsonPatch optimize() {
+        final JsonPatchOperation[] optimized = JsonPatchOptimizer.optimize(operations);
+        return optimized == operations ? this : new JsonPatch(optimized);
+    }
+
+    /**
+     * Merges patches into one patch with the effect of applying them in order, on any target they apply to:
+     * the operations are concatenated then {@link #optimize() optimized}, so only the combinations the optimizer
+     * can prove are made. As array indices and object member names can't be told apart without the target, item
+     * insertions and removals are not rewritten: a chain of them is kept as is, one operation per step, unless it
+     * happens inside a value an earlier operation added or replaced. Use
+     * {@link #compose(JsonStructure, JsonPatch...)} to resolve index shifts against a known base.
+     */
+    public static JsonPatch compose(JsonPatch... patches) {
+        return compose(Arrays.asList(patches));
+    }
+
+    /**
+     * @see #compose(JsonPatch...)
+     */
+    public static JsonPatch compose(Iterable<JsonPatch> patches) {
+        final List<JsonPatchOperation> operations = new ArrayList<>();
+        for (JsonPatch patch : patches) {
+            operations.addAll(Arrays.asList(patch.operations));
+        }
+        return new JsonPatch(JsonPatchOptimizer.optimize(operations.toArray(new JsonPatchOperation[operations.size()])));
+    }
+
+    /**
+     * Merges patches into one patch equivalent to applying them in order to base. The chain is applied once
+     * to a single working copy of base and the result diffed against it, so index shifts are resolved and
+     * superseded operations disappear. The resulting patch is only meant to be applied to base.
+     */
+    public static JsonPatch compose(JsonStructure base, JsonPatch... patches) {
+        final JsonWorkingTree tree = new JsonWorkingTree(base);
+        for (JsonPatch patch : patches) {
+            patch.applyTo(tree);
+        }
+        return new JsonPatch(diff(base, tree.freeze()));
     }
 
     @Override
     public boolean equals(Object obj) {
-        return patch.equals(obj);
+        return obj instanceof JsonPatch && patch().equals(JsonPatch.class.cast(obj).patch());
     }
 
     @Override
     public int hashCode() {
-        return patch.hashCode();
+        return patch().hashCode();
     }
 
     @Override
     public String toString() {
-        return patch.toString();
+        return patch().toString();
     }
 
     /*
@@ -73,157 +226,194 @@ public final class JsonPatch {
      * 
      */
     public JsonStructure apply(JsonStructure target) {
-        System.out.println("start: "+target);
-        for (JsonValue jsonValue : patch) {
-            System.out.println(jsonValue);
-            JsonObject patchLine = jsonValue.asJsonObject();
-            String path = patchLine.getString(PATH);
-            JsonValue value = null;
-            String from = null;
-            System.out.println("patchline; "+patchLine);
-            System.out.println("path "+path);
-            switch(patchLine.getString(OP)) {
-            case ADD:
-                value = patchLine.get(VALUE);
-                target = new JsonPointer(path).add(target, value);
-                System.out.println("after add "+target);
-                break;
-            case REMOVE:
-                target = new JsonPointer(path).remove(target);
-                System.out.println("after remove "+target);
-                break;
-            case REPLACE:
-                value = patchLine.get(VALUE);
-                target = new JsonPointer(path).replace(target, value);
-                System.out.println("after replace "+target);
-                break;
-            case MOVE:
-                from = patchLine.getString(FROM);
-                if(from.equals(path)) break;
-                JsonStructure result = new JsonPointer(path).add(target, new JsonPointer(from).getValue(target));
-                target = new JsonPointer(from).remove(result);
-                System.out.println("after move "+target);
-                break;
-            case TEST:
-                value = patchLine.get(VALUE);
-                if(!value.equals(new JsonPointer(path).getValue(target))) {
-                    throw new JsonException("values do not match");
-                }
-                break;
-            case COPY:
-                from = patchLine.getString(FROM);
-                target = new JsonPointer(path).add(target, new JsonPointer(from).getValue(target));
-                System.out.println("after copy "+target);
-                break;
-            default: throw new JsonException("unknown op");
-            
+        final JsonTraceListener listener = JsonTrace.getListener();
+        final long start = listener == null ? 0 : System.nanoTime();
+
+        // all operations run against one mutable working tree which is frozen once at the end
+        final JsonWorkingTree tree = new JsonWorkingTree(target);
+        applyTo(tree);
+        final JsonStructure result = tree.freeze();
+
+        if (listener != null) {
+            listener.trace(JsonTraceListener.Operation.PATCH_APPLY, null, operations.length, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private void applyTo(JsonWorkingTree tree) {
+        final JsonPatchMetrics metrics = JsonMetrics.getPatchMetrics();
+        if (metrics == null) {
+            for (JsonPatchOperation operation : operations) {
+                execute(tree, operation);
             }
-            
+            return;
+        }
+
+        for (JsonPatchOperation operation : operations) {
+            final int nodesVisited = tree.nodesVisited;
+            final int subtreesCopied = tree.subtreesCopied;
+            final long start = System.nanoTime();
+            execute(tree, operation);
+            metrics.operationApplied(operation.operation, System.nanoTime() - start,
+                    tree.nodesVisited - nodesVisited, tree.subtreesCopied - subtreesCopied);
+        }
+    }
+
+    private static void execute(JsonWorkingTree tree, JsonPatchOperation operation) {
+        switch (operation.operation) {
+        case ADD:
+            tree.add(operation.path, operation.value);
+            break;
+        case REMOVE:
+            tree.remove(operation.path);
+            break;
+        case REPLACE:
+            tree.replace(operation.path, operation.value);
+            break;
+        case MOVE:
+            tree.move(operation.from, operation.path);
+            break;
+        case TEST:
+            if (!tree.test(operation.path, operation.value)) {
+                throw new JsonException("values do not match");
+            }
+            break;
+        case COPY:
+            tree.copy(operation.from, operation.path);
+            break;
+        default: throw new JsonException("unknown op");
+        }
+    }
+
+    /**
+     * Applies this patch to the document read from the parser while writing the result to the generator.
+     * Untouched parts of the document are copied event by event, only the values the operations point to are kept
+     * in memory, and the output following them while they are not final yet (e.g. when a move takes its value
+     * from later in the document). If an operation fails a JsonException is thrown and the output is incomplete.
+     *
+     * @param source a parser positioned before the document to patch
+     * @param generator where the patched document is written
+     */
+    public void apply(JsonParser source, JsonGenerator generator) {
+        final JsonTraceListener listener = JsonTrace.getListener();
+        final long start = listener == null ? 0 : System.nanoTime();
+
+        new JsonStreamingPatch(operations, source, generator).apply();
+
+        if (listener != null) {
+            listener.trace(JsonTraceListener.Operation.PATCH_APPLY, null, operations.length, System.nanoTime() - start);
         }
-        System.out.println("applied "+patch.size());
-        return target;
     }
-    
 
     public static JsonArray diff(JsonStructure source, JsonStructure target) {
-        System.out.println("overall source "+source);
-        System.out.println("overall target "+target);
-        return diff("", source, target);
+        final JsonPatchBuilder builder = new JsonPatchBuilder();
+        diff(source, target, builder);
+        return builder.build();
     }
-    
-    private static JsonArray diff(String path, JsonValue source, JsonValue target) {
-        
-        if(source instanceof JsonObject && target instanceof JsonObject) {
-            return diff(path, source.asJsonObject(), target.asJsonObject());
-        }
-        
-        if(source instanceof JsonArray && target instanceof JsonArray) {
-            return diff(path, source.asJsonArray(), target.asJsonArray());
-        }
-        
-        /*if(source instanceof JsonObject && target instanceof JsonArray) {
-            return new JsonPatchBuilder()
-            .replace(path, target)
-            .build();
-        }
-        
-        if(source instanceof JsonArray && target instanceof JsonObject) {
-            return new JsonPatchBuilder()
-            .replace(path, target)
-            .build();
-        }*/
-        
-        System.out.println("replace "+path+" with "+target.getClass()+"  "+target);
-        
-        return new JsonPatchBuilder()
-        .replace(path, target)
-        .build();
-        
-        
+
+    /**
+     * Same as {@link #diff(JsonStructure, JsonStructure)} but the operations are appended to the given builder.
+     */
+    public static void diff(JsonStructure source, JsonStructure target, JsonPatchBuilder builder) {
+        diff(source, target, JsonPatchSink.of(builder));
     }
-    
-    private static JsonArray diff(String path, JsonArray source, JsonArray target) {
-        System.out.println("replace arrays on "+path);
-        System.out.println("source "+source);
-        System.out.println("target "+target);
-        JsonPatchBuilder pb = new JsonPatchBuilder();
-        int offset=0;
-        for (int i = 0; i < Math.max(source.size(), target.size()); i++) {
-            if (target.size() - 1 >= i) {
-
-                JsonValue tv = target.get(i);
-
-                // source has an value at this index
-                if (source.size() - 1 >= i) {
-                    JsonValue sv = source.get(i);
-                    if (!tv.equals(sv)) {
-                        pb.addPatches(diff(path + "/" + i, sv, tv));
-                    }
-                } else {
-                    pb.add(path+ "/" + (i + offset), tv);
-                    System.out.println("add on "+path+ "/" + (i + offset) +" --> "+tv);
-                }
-            } else {
-                pb.remove(path+ "/" + (i + offset));
-                System.out.println("remove on "+path+ "/" + (i + offset));
-                offset--;
-            }
+
+    /**
+     * Same as {@link #diff(JsonStructure, JsonStructure)} but each operation is passed to the consumer as it is found.
+     */
+    public static void diff(JsonStructure source, JsonStructure target, Consumer<? super JsonObject> consumer) {
+        diff(source, target, JsonPatchSink.of(consumer));
+    }
+
+    /**
+     * Same as {@link #diff(JsonStructure, JsonStructure)} but the patch, a JSON array, is written to the generator.
+     */
+    public static void diff(JsonStructure source, JsonStructure target, JsonGenerator generator) {
+        generator.writeStartArray();
+        diff(source, target, JsonPatchSink.of(generator));
+        generator.writeEnd();
+    }
+
+    private static void diff(JsonStructure source, JsonStructure target, JsonPatchSink sink) {
+        final JsonTraceListener listener = JsonTrace.getListener();
+        final JsonPatchMetrics metrics = JsonMetrics.getPatchMetrics();
+        if (listener == null && metrics == null) {
+            new JsonDiff(new JsonStructuralHashes()).diff("", source, target, sink);
+            return;
         }
 
-        return pb.build();
+        final long start = System.nanoTime();
+        final JsonStructuralHashes hashes = new JsonStructuralHashes();
+        final JsonPatchSink.Counting counting = new JsonPatchSink.Counting(sink);
+        new JsonDiff(hashes).diff("", source, target, counting);
+        final long elapsed = System.nanoTime() - start;
+        if (listener != null) {
+            listener.trace(JsonTraceListener.Operation.PATCH_DIFF, null, counting.getCount(), elapsed);
+        }
+        if (metrics != null) {
+            // the children are already hashed by the diff so this is mostly table lookups
+            metrics.diffComputed(hashes.size(source), hashes.size(target), counting.getCount(), elapsed);
+        }
     }
-    
-    private static JsonArray diff(String path, JsonObject source, JsonObject target) {
-        System.out.println("replace objects on "+path);
-        System.out.println("source "+source);
-        System.out.println("target "+target);
-        JsonPatchBuilder pb = new JsonPatchBuilder();
-        Set<String> allKeys = new HashSet<String>(source.keySet());
-        allKeys.addAll(target.keySet());
-        for(String key:allKeys) {
-            if (target.containsKey(key)) {
-
-                JsonValue tv = target.get(key);
-
-                // source has an value at this index
-                if (source.containsKey(key)) {
-                    JsonValue sv = source.get(key);
-                    if (!tv.equals(sv)) {
-                        pb.addPatches(diff(path + "/" + key, sv, tv));
-                    }
-                } else {
-                    pb.add(path+ "/" + key, tv);
-                    System.out.println("add on "+path+ "/" + key +" --> "+tv);
-                }
-            } else {
-                pb.remove(path+ "/" + key);
-                System.out.println("remove on "+path+ "/" + key);
-            }
+
+    /**
+     * Same as {@link #diff(JsonStructure, JsonStructure)} but large independent object members and array items
+     * are diffed in parallel in the given pool. The resulting patch is the one of the sequential diff.
+     */
+    public static JsonArray diff(JsonStructure source, JsonStructure target, ForkJoinPool pool) {
+        final JsonTraceListener listener = JsonTrace.getListener();
+        final JsonPatchMetrics metrics = JsonMetrics.getPatchMetrics();
+        final long start = listener == null && metrics == null ? 0 : System.nanoTime();
+
+        final List<JsonPatchStep> operations = pool.invoke(JsonParallelDiff.task(source, target));
+        final JsonPatchBuilder builder = new JsonPatchBuilder();
+        final JsonPatchSink sink = JsonPatchSink.of(builder);
+        for (final JsonPatchStep operation : operations) {
+            sink.operation(operation.operation, operation.path, operation.from, operation.value);
         }
 
-        return pb.build();
+        final long elapsed = System.nanoTime() - start;
+        if (listener != null) {
+            listener.trace(JsonTraceListener.Operation.PATCH_DIFF, null, operations.size(), elapsed);
+        }
+        if (metrics != null) {
+            // the tables of the tasks are gone, sizes are computed again outside of the measured time
+            final JsonStructuralHashes hashes = new JsonStructuralHashes();
+            metrics.diffComputed(hashes.size(source), hashes.size(target), operations.size(), elapsed);
+        }
+        return builder.build();
     }
-    
+
+    /**
+     * Diffs two documents read from parsers in lockstep and writes the patch, a JSON array, to the generator.
+     * Values at the same place are compared as they are read, only object members which don't come in the same order
+     * in both documents are kept in memory. Arrays are compared item by item, use
+     * {@link #diff(JsonStructure, JsonStructure)} to detect insertions and moves.
+     *
+     * @param source a parser positioned before the source document
+     * @param target a parser positioned before the target document
+     * @param generator where the patch is written
+     */
+    public static void diff(JsonParser source, JsonParser target, JsonGenerator generator) {
+        final JsonTraceListener listener = JsonTrace.getListener();
+        final JsonPatchMetrics metrics = JsonMetrics.getPatchMetrics();
+        final long start = listener == null && metrics == null ? 0 : System.nanoTime();
+
+        final JsonPatchSink.Counting sink = new JsonPatchSink.Counting(JsonPatchSink.of(generator));
+        generator.writeStartArray();
+        new JsonStreamingDiff(source, target, sink).diff();
+        generator.writeEnd();
+
+        final long elapsed = System.nanoTime() - start;
+        if (listener != null) {
+            listener.trace(JsonTraceListener.Operation.PATCH_DIFF, null, sink.getCount(), elapsed);
+        }
+        if (metrics != null) {
+            // documents are never fully materialized so their sizes are unknown
+            metrics.diffComputed(-1, -1, sink.getCount(), elapsed);
+        }
+    }
+
     public JsonObject apply(JsonObject target) {
         return (JsonObject) apply((JsonStructure)target);
     }
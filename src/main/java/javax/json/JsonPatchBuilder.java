@@ -17,6 +17,12 @@
 
 package javax.json;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.JsonPatch.Operation;
+
 /**
  * 
  * @since 1.1
@@ -24,174 +30,163 @@ package javax.json;
  */
 public class JsonPatchBuilder {
 
-    
-    private JsonArrayBuilder builder; 
+    // operations given at construction, only read again on build() or apply()
+    private final JsonArray initial;
+    private final List<JsonPatchStep> steps = new ArrayList<>();
 
     public JsonPatchBuilder(JsonArray patch) {
-        builder = Json.createArrayBuilder(patch);
+        initial = patch;
     }
 
     public JsonPatchBuilder() {
-        builder = Json.createArrayBuilder();
+        initial = null;
     }
 
     public JsonStructure apply(JsonStructure target) {
-        return new JsonPatch(build()).apply(target);
+        return toPatch().apply(target);
     }
     
     public JsonObject apply(JsonObject target) {
-        return new JsonPatch(build()).apply(target);
+        return toPatch().apply(target);
     }
 
     public JsonArray apply(JsonArray target) {
-        return new JsonPatch(build()).apply(target);
+        return toPatch().apply(target);
     }
 
     public JsonPatchBuilder add(String path, JsonValue value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.ADD)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                   );
-        return this;
+        return operation(Operation.ADD, path, null, value);
     }
 
     public JsonPatchBuilder add(String path, String value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.ADD)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                   );
-        return this;
+        return operation(Operation.ADD, path, null, Json.createValue(value));
     }
 
     public JsonPatchBuilder add(String path, int value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.ADD)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.ADD, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder add(String path, long value) {
+        return operation(Operation.ADD, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder add(String path, double value) {
+        return operation(Operation.ADD, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder add(String path, BigDecimal value) {
+        return operation(Operation.ADD, path, null, Json.createValue(value));
     }
 
     public JsonPatchBuilder add(String path, boolean value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.ADD)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                   );
-        return this;
+        return operation(Operation.ADD, path, null, value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    public JsonPatchBuilder addNull(String path) {
+        return operation(Operation.ADD, path, null, JsonValue.NULL);
     }
 
     public JsonPatchBuilder remove(String path) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.REMOVE)
-                           .add(JsonPatch.PATH, path)
-                    );
-        return this;
+        return operation(Operation.REMOVE, path, null, null);
     }
 
     public JsonPatchBuilder replace(String path, JsonValue value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.REPLACE)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.REPLACE, path, null, value);
     }
 
     public JsonPatchBuilder replace(String path, String value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.REPLACE)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.REPLACE, path, null, Json.createValue(value));
     }
 
     public JsonPatchBuilder replace(String path, int value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.REPLACE)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.REPLACE, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder replace(String path, long value) {
+        return operation(Operation.REPLACE, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder replace(String path, double value) {
+        return operation(Operation.REPLACE, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder replace(String path, BigDecimal value) {
+        return operation(Operation.REPLACE, path, null, Json.createValue(value));
     }
 
     public JsonPatchBuilder replace(String path, boolean value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.REPLACE)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.REPLACE, path, null, value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    public JsonPatchBuilder replaceNull(String path) {
+        return operation(Operation.REPLACE, path, null, JsonValue.NULL);
     }
 
     public JsonPatchBuilder move(String path, String from) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.MOVE)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.FROM, from)
-                  );
-        return this;
+        return operation(Operation.MOVE, path, from, null);
     }
  
     public JsonPatchBuilder copy(String path, String from) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.COPY)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.FROM, from)
-                  );
-        return this;
+        return operation(Operation.COPY, path, from, null);
     }
  
     public JsonPatchBuilder test(String path, JsonValue value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.TEST)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.TEST, path, null, value);
     }
 
     public JsonPatchBuilder test(String path, String value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.TEST)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.TEST, path, null, Json.createValue(value));
     }
 
     public JsonPatchBuilder test(String path, int value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.TEST)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.TEST, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder test(String path, long value) {
+        return operation(Operation.TEST, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder test(String path, double value) {
+        return operation(Operation.TEST, path, null, Json.createValue(value));
+    }
+
+    public JsonPatchBuilder test(String path, BigDecimal value) {
+        return operation(Operation.TEST, path, null, Json.createValue(value));
     }
 
     public JsonPatchBuilder test(String path, boolean value) {
-        builder.add(Json.createObjectBuilder()
-                           .add(JsonPatch.OP, JsonPatch.TEST)
-                           .add(JsonPatch.PATH, path)
-                           .add(JsonPatch.VALUE, value)
-                  );
-        return this;
+        return operation(Operation.TEST, path, null, value ? JsonValue.TRUE : JsonValue.FALSE);
     }
-    
-    JsonPatchBuilder addPatches(JsonArray patches) {
-        for (JsonValue jsonValue : patches) {
-            builder.add(jsonValue);
-        }
-        
-        
+
+    public JsonPatchBuilder testNull(String path) {
+        return operation(Operation.TEST, path, null, JsonValue.NULL);
+    }
+
+    JsonPatchBuilder operation(Operation operation, String path, String from, JsonValue value) {
+        steps.add(new JsonPatchStep(operation, path, from, value));
         return this;
     }
 
     public JsonArray build() {
+        final JsonArrayBuilder builder = initial == null ? Json.createArrayBuilder() : Json.createArrayBuilder(initial);
+        for (JsonPatchStep step : steps) {
+            builder.add(step.toJson());
+        }
         return builder.build();
     }
-}
 
+    /**
+     * Compiles the operations without going through their JSON form.
+     */
+    private JsonPatch toPatch() {
+        final int initialSize = initial == null ? 0 : initial.size();
+        final JsonPatchOperation[] operations = new JsonPatchOperation[initialSize + steps.size()];
+        for (int i = 0; i < initialSize; i++) {
+            operations[i] = JsonPatchOperation.compile(initial.get(i));
+        }
+        for (int i = 0; i < steps.size(); i++) {
+            operations[initialSize + i] = steps.get(i).compile();
+        }
+        return new JsonPatch(operations);
+    }
+}
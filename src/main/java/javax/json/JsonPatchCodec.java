@@ -0,0 +1,469 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.JsonPatch.Operation;
+
+/**
+ * Binary form of a patch, see {@link JsonPatch#toBinary()}.
+ *
+ * <pre>
+ * patch     := VERSION varint(count) operation*
+ * operation := byte(op ordinal) pointer(path) [pointer(from)] [value]
+ * pointer   := varint(prefix id) varint(token count) token*
+ * token     := varint(index &lt;&lt; 2 | 1) | varint(token id &lt;&lt; 2 | 2) | varint(length &lt;&lt; 2) utf8
+ * value     := NULL | TRUE | FALSE | LONG zigzag-varint | DECIMAL string | STRING string
+ *            | ARRAY varint(size) value* | OBJECT varint(size) (string value)*
+ * </pre>
+ *
+ * Pointers share a dictionary of prefixes: id 0 is the root and every token written after a known prefix
+ * defines the next id, so a pointer only spells out the tokens no previous pointer of the patch had.
+ * Names spelled out get an id too, in order, so a name already written is referenced by it.
+ *
+ * Decoding doesn't trust the counts and lengths it reads: collections grow as their content is read so truncated or
+ * forged input fails on its end, strings are capped to {@link #MAX_LENGTH} bytes and values to
+ * {@link #MAX_DEPTH} levels of nesting. A pointer is capped to {@link #MAX_TOKENS} tokens and the prefix dictionary
+ * to {@link #MAX_PREFIXES} entries, each entry only links its token to its parent prefix so the text of a pointer is
+ * built once, when an operation uses it. Encoding fails with a {@link JsonException} on what decoding would reject.
+ */
+final class JsonPatchCodec {
+    private static final int VERSION = 1;
+
+    static final int MAX_LENGTH = 1 << 26;
+    static final int MAX_DEPTH = 1024;
+    static final int MAX_TOKENS = 1024;
+    static final int MAX_PREFIXES = 1 << 20;
+    private static final int CHUNK = 8192;
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int LONG = 3;
+    private static final int DECIMAL = 4;
+    private static final int STRING = 5;
+    private static final int ARRAY = 6;
+    private static final int OBJECT = 7;
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private JsonPatchCodec() {
+        // no-op
+    }
+
+    static byte[] encode(final JsonPatchOperation[] operations) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(32 * operations.length + 8);
+        try {
+            encode(operations, out);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static void encode(final JsonPatchOperation[] operations, final OutputStream out) throws IOException {
+        final Encoder encoder = new Encoder(out);
+        out.write(VERSION);
+        encoder.varint(operations.length);
+        for (final JsonPatchOperation operation : operations) {
+            out.write(operation.operation.ordinal());
+            encoder.pointer(operation.path);
+            if (operation.from != null) {
+                encoder.pointer(operation.from);
+            }
+            if (operation.value != null) {
+                encoder.value(operation.value, 0);
+            }
+        }
+    }
+
+    static JsonPatchOperation[] decode(final InputStream in) throws IOException {
+        final Decoder decoder = new Decoder(in);
+        final int version = decoder.read();
+        if (version != VERSION) {
+            throw new JsonException("unsupported binary patch version " + version);
+        }
+        final int count = decoder.length();
+        final List<JsonPatchOperation> operations = new ArrayList<>(Math.min(count, CHUNK));
+        for (int i = 0; i < count; i++) {
+            final int code = decoder.read();
+            if (code >= OPERATIONS.length) {
+                throw new JsonException("unknown op " + code);
+            }
+            final Operation operation = OPERATIONS[code];
+            final JsonPointer path = decoder.pointer();
+            switch (operation) {
+                case ADD:
+                case REPLACE:
+                case TEST:
+                    operations.add(new JsonPatchOperation(operation, path, null, decoder.value(0)));
+                    break;
+                case MOVE:
+                case COPY:
+                    operations.add(new JsonPatchOperation(operation, path, decoder.pointer(), null));
+                    break;
+                default:
+                    operations.add(new JsonPatchOperation(operation, path, null, null));
+            }
+        }
+        return operations.toArray(new JsonPatchOperation[operations.size()]);
+    }
+
+    private static void checkDepth(final int depth) {
+        if (depth >= MAX_DEPTH) {
+            throw new JsonException("values nested deeper than " + MAX_DEPTH);
+        }
+    }
+
+    private static final class Encoder {
+        private final OutputStream out;
+        // prefix dictionary, the root has id 0
+        private final PrefixNode root = new PrefixNode(0);
+        private int nextId = 1;
+        private final Map<String, Integer> names = new HashMap<>();
+
+        private Encoder(final OutputStream out) {
+            this.out = out;
+        }
+
+        private void pointer(final JsonPointer pointer) throws IOException {
+            // what the decoder would reject isn't written
+            if (pointer.depth() > MAX_TOKENS) {
+                throw new JsonException("pointer deeper than " + MAX_TOKENS + " tokens");
+            }
+            if (pointer.toString().length() > MAX_LENGTH) {
+                throw new JsonException("pointer longer than " + MAX_LENGTH + " characters");
+            }
+            PrefixNode node = root;
+            int known = 0;
+            while (known < pointer.depth()) {
+                final PrefixNode child = node.children.get(pointer.token(known));
+                if (child == null) {
+                    break;
+                }
+                node = child;
+                known++;
+            }
+            if (pointer.depth() - known > MAX_PREFIXES - nextId) {
+                throw new JsonException("more than " + MAX_PREFIXES + " pointer prefixes");
+            }
+            varint(node.id);
+            varint(pointer.depth() - known);
+            for (int i = known; i < pointer.depth(); i++) {
+                final int index = pointer.index(i);
+                if (index >= 0) {
+                    varint(((long) index << 2) | 1);
+                } else {
+                    final Integer name = names.get(pointer.token(i));
+                    if (name != null) {
+                        varint(((long) name << 2) | 2);
+                    } else {
+                        names.put(pointer.token(i), names.size());
+                        final byte[] bytes = utf8(pointer.token(i));
+                        varint((long) bytes.length << 2);
+                        out.write(bytes);
+                    }
+                }
+                final PrefixNode child = new PrefixNode(nextId++);
+                node.children.put(pointer.token(i), child);
+                node = child;
+            }
+        }
+
+        private void value(final JsonValue value, final int depth) throws IOException {
+            switch (value.getValueType()) {
+                case NULL:
+                    out.write(NULL);
+                    break;
+                case TRUE:
+                    out.write(TRUE);
+                    break;
+                case FALSE:
+                    out.write(FALSE);
+                    break;
+                case NUMBER: {
+                    final JsonNumber number = JsonNumber.class.cast(value);
+                    final BigDecimal decimal = number.bigDecimalValue();
+                    if (decimal.scale() == 0 && decimal.unscaledValue().bitLength() < 64) {
+                        out.write(LONG);
+                        final long l = decimal.longValueExact();
+                        varint((l << 1) ^ (l >> 63));
+                    } else {
+                        out.write(DECIMAL);
+                        string(decimal.toString());
+                    }
+                    break;
+                }
+                case STRING:
+                    out.write(STRING);
+                    string(JsonString.class.cast(value).getString());
+                    break;
+                case ARRAY: {
+                    checkDepth(depth);
+                    final JsonArray array = value.asJsonArray();
+                    out.write(ARRAY);
+                    varint(array.size());
+                    for (final JsonValue item : array) {
+                        value(item, depth + 1);
+                    }
+                    break;
+                }
+                case OBJECT: {
+                    checkDepth(depth);
+                    final JsonObject object = value.asJsonObject();
+                    out.write(OBJECT);
+                    varint(object.size());
+                    for (final Map.Entry<String, JsonValue> member : object.entrySet()) {
+                        string(member.getKey());
+                        value(member.getValue(), depth + 1);
+                    }
+                    break;
+                }
+                default:
+                    throw new JsonException("unsupported value " + value);
+            }
+        }
+
+        private void string(final String value) throws IOException {
+            final byte[] bytes = utf8(value);
+            varint(bytes.length);
+            out.write(bytes);
+        }
+
+        private static byte[] utf8(final String value) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_LENGTH) {
+                throw new JsonException("length " + bytes.length + " exceeds " + MAX_LENGTH);
+            }
+            return bytes;
+        }
+
+        private void varint(final long value) throws IOException {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                out.write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            out.write((int) remaining);
+        }
+    }
+
+    private static final class PrefixNode {
+        private final int id;
+        private final Map<String, PrefixNode> children = new HashMap<>();
+
+        private PrefixNode(final int id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Prefix {
+        private final Prefix parent;
+        private final String token;
+        private final int depth;
+        private final long length;
+        // compiled once a pointer ends on this prefix
+        private JsonPointer pointer;
+
+        private Prefix(final Prefix parent, final String token) {
+            this.parent = parent;
+            this.token = token;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.length = parent == null ? 0 : parent.length + 1 + token.length();
+        }
+
+        private String text() {
+            if (length > MAX_LENGTH) {
+                throw new JsonException("pointer longer than " + MAX_LENGTH + " characters");
+            }
+            final char[] text = new char[(int) length];
+            int end = text.length;
+            for (Prefix prefix = this; prefix.parent != null; prefix = prefix.parent) {
+                end -= prefix.token.length();
+                prefix.token.getChars(0, prefix.token.length(), text, end);
+                text[--end] = '/';
+            }
+            return new String(text);
+        }
+    }
+
+    private static final class Decoder {
+        private final InputStream in;
+        // prefix dictionary, linked to its parent so a prefix costs one token whatever its depth
+        private final List<Prefix> prefixes = new ArrayList<>();
+        // escaped names by id
+        private final List<String> names = new ArrayList<>();
+
+        private Decoder(final InputStream in) {
+            this.in = in;
+            prefixes.add(new Prefix(null, null));
+        }
+
+        private JsonPointer pointer() throws IOException {
+            final int id = length();
+            if (id >= prefixes.size()) {
+                throw new JsonException("unknown pointer prefix " + id);
+            }
+            Prefix prefix = prefixes.get(id);
+            final int tokens = length();
+            if (tokens > MAX_TOKENS - prefix.depth) {
+                throw new JsonException("pointer deeper than " + MAX_TOKENS + " tokens");
+            }
+            if (tokens > MAX_PREFIXES - prefixes.size()) {
+                throw new JsonException("more than " + MAX_PREFIXES + " pointer prefixes");
+            }
+            for (int i = 0; i < tokens; i++) {
+                final long header = varint();
+                final String token;
+                switch ((int) (header & 3)) {
+                    case 1:
+                        token = Long.toString(header >>> 2);
+                        break;
+                    case 2: {
+                        final int name = toLength(header >>> 2);
+                        if (name >= names.size()) {
+                            throw new JsonException("unknown name " + name);
+                        }
+                        token = names.get(name);
+                        break;
+                    }
+                    case 0:
+                        token = JsonPointer.escape(new String(bytes(toLength(header >>> 2)), StandardCharsets.UTF_8));
+                        names.add(token);
+                        break;
+                    default:
+                        throw new JsonException("invalid token header " + header);
+                }
+                prefix = new Prefix(prefix, token);
+                prefixes.add(prefix);
+            }
+            if (prefix.pointer == null) {
+                prefix.pointer = new JsonPointer(prefix.text());
+            }
+            return prefix.pointer;
+        }
+
+        private JsonValue value(final int depth) throws IOException {
+            final int tag = read();
+            switch (tag) {
+                case NULL:
+                    return JsonValue.NULL;
+                case TRUE:
+                    return JsonValue.TRUE;
+                case FALSE:
+                    return JsonValue.FALSE;
+                case LONG: {
+                    final long zigzag = varint();
+                    return Json.createValue((zigzag >>> 1) ^ -(zigzag & 1));
+                }
+                case DECIMAL:
+                    return Json.createValue(new BigDecimal(string()));
+                case STRING:
+                    return Json.createValue(string());
+                case ARRAY: {
+                    checkDepth(depth);
+                    final int size = length();
+                    final JsonArrayBuilder builder = Json.createArrayBuilder();
+                    for (int i = 0; i < size; i++) {
+                        builder.add(value(depth + 1));
+                    }
+                    return builder.build();
+                }
+                case OBJECT: {
+                    checkDepth(depth);
+                    final int size = length();
+                    final JsonObjectBuilder builder = Json.createObjectBuilder();
+                    for (int i = 0; i < size; i++) {
+                        final String key = string();
+                        builder.add(key, value(depth + 1));
+                    }
+                    return builder.build();
+                }
+                default:
+                    throw new JsonException("unknown value tag " + tag);
+            }
+        }
+
+        private String string() throws IOException {
+            return new String(bytes(length()), StandardCharsets.UTF_8);
+        }
+
+        private byte[] bytes(final int length) throws IOException {
+            if (length > MAX_LENGTH) {
+                throw new JsonException("length " + length + " exceeds " + MAX_LENGTH);
+            }
+            // grown while reading, a forged length fails on the end of the input instead of allocating it upfront
+            byte[] bytes = new byte[Math.min(length, CHUNK)];
+            int offset = 0;
+            while (offset < length) {
+                if (offset == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+                }
+                final int read = in.read(bytes, offset, bytes.length - offset);
+                if (read < 0) {
+                    throw new EOFException("unexpected end of binary patch");
+                }
+                offset += read;
+            }
+            return bytes;
+        }
+
+        private int length() throws IOException {
+            return toLength(varint());
+        }
+
+        private static int toLength(final long value) {
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new JsonException("invalid length " + value);
+            }
+            return (int) value;
+        }
+
+        private long varint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new JsonException("malformed varint");
+        }
+
+        private int read() throws IOException {
+            final int b = in.read();
+            if (b < 0) {
+                throw new EOFException("unexpected end of binary patch");
+            }
+            return b;
+        }
+    }
+}
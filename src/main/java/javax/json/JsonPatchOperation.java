@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import javax.json.JsonPatch.Operation;
+
+/**
+ * A single JSON Patch operation compiled once: op resolved, pointers compiled and required members checked.
+ */
+final class JsonPatchOperation {
+
+    final Operation operation;
+    final JsonPointer path;
+    // only set for move and copy
+    final JsonPointer from;
+    // only set for add, replace and test
+    final JsonValue value;
+
+    JsonPatchOperation(final Operation operation, final JsonPointer path, final JsonPointer from, final JsonValue value) {
+        this.operation = operation;
+        this.path = path;
+        this.from = from;
+        this.value = value;
+    }
+
+    static JsonPatchOperation compile(final JsonValue jsonValue) {
+        if (!(jsonValue instanceof JsonObject)) {
+            throw new JsonException("patch operations must be objects: " + jsonValue);
+        }
+        final JsonObject patchLine = jsonValue.asJsonObject();
+        final Operation operation = Operation.fromOperationName(requiredString(patchLine, JsonPatch.OP));
+        final JsonPointer path = JsonPointer.compile(requiredString(patchLine, JsonPatch.PATH));
+
+        switch (operation) {
+            case ADD:
+            case REPLACE:
+            case TEST:
+                final JsonValue value = patchLine.get(JsonPatch.VALUE);
+                if (value == null) {
+                    throw new JsonException("missing '" + JsonPatch.VALUE + "' in " + patchLine);
+                }
+                return new JsonPatchOperation(operation, path, null, value);
+            case MOVE:
+            case COPY:
+                return new JsonPatchOperation(operation, path,
+                        JsonPointer.compile(requiredString(patchLine, JsonPatch.FROM)), null);
+            default:
+                return new JsonPatchOperation(operation, path, null, null);
+        }
+    }
+
+    private static String requiredString(final JsonObject patchLine, final String name) {
+        final JsonValue value = patchLine.get(name);
+        if (!(value instanceof JsonString)) {
+            throw new JsonException("missing or invalid '" + name + "' in " + patchLine);
+        }
+        return JsonString.class.cast(value).getString();
+    }
+
+    JsonObject toJson() {
+        return toJson(operation, path.toString(), from == null ? null : from.toString(), value);
+    }
+
+    /**
+     * The RFC 6902 object of an operation, shared with {@link JsonPatchStep} which keeps its pointers as written.
+     */
+    static JsonObject toJson(final Operation operation, final String path, final String from, final JsonValue value) {
+        final JsonObjectBuilder builder = Json.createObjectBuilder()
+                .add(JsonPatch.OP, operation.operationName())
+                .add(JsonPatch.PATH, path);
+        if (from != null) {
+            builder.add(JsonPatch.FROM, from);
+        }
+        if (value != null) {
+            builder.add(JsonPatch.VALUE, value);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toString();
+    }
+}
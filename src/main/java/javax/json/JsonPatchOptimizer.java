@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.JsonPatch.Operation;
+
+/**
+ * Rewrites a patch into an equivalent shorter one, see {@link JsonPatch#optimize()}.
+ *
+ * An incoming operation is combined with an earlier one when all operations in between provably don't touch
+ * the same locations, array index shifts included:
+ * <ul>
+ *     <li>a replace overrides an earlier add or replace of the same path,</li>
+ *     <li>a remove overrides an earlier replace of the same path, of the root it becomes a replace by an empty
+ *     container of the replaced value's type,</li>
+ *     <li>operations below a path whose value was added or replaced earlier are applied to that value,
+ *     tests which pass on it are dropped,</li>
+ *     <li>a copy followed by the remove of its source becomes a move.</li>
+ * </ul>
+ * Without the target document nothing else is known, e.g. an add followed by a remove of the same path
+ * is kept since the add may have overwritten an existing member.
+ */
+final class JsonPatchOptimizer {
+    // how far back an operation looks for one to combine with
+    private static final int LOOKBACK = 256;
+
+    private JsonPatchOptimizer() {
+        // no-op
+    }
+
+    /**
+     * @return the optimized operations, the given array itself if no operation could be combined
+     */
+    static JsonPatchOperation[] optimize(final JsonPatchOperation[] operations) {
+        final List<JsonPatchOperation> optimized = new ArrayList<>(operations.length);
+        boolean combined = false;
+        for (final JsonPatchOperation operation : operations) {
+            combined |= append(optimized, operation);
+        }
+        return combined ? optimized.toArray(new JsonPatchOperation[optimized.size()]) : operations;
+    }
+
+    /**
+     * @return true if operation was combined with an earlier one, false if it was appended as is
+     */
+    private static boolean append(final List<JsonPatchOperation> optimized, final JsonPatchOperation operation) {
+        final int last = optimized.size() - 1;
+        for (int i = last; i >= 0 && i > last - LOOKBACK; i--) {
+            final JsonPatchOperation previous = optimized.get(i);
+            if (combine(optimized, i, previous, operation)) {
+                return true;
+            }
+            if (!independent(previous, operation)) {
+                break;
+            }
+        }
+        optimized.add(operation);
+        return false;
+    }
+
+    /**
+     * @return true if operation was merged into optimized at index
+     */
+    private static boolean combine(final List<JsonPatchOperation> optimized, final int index,
+                                   final JsonPatchOperation previous, final JsonPatchOperation operation) {
+        final Operation previousOperation = previous.operation;
+        final boolean setsValue = previousOperation == Operation.ADD || previousOperation == Operation.REPLACE;
+        if (setsValue && previous.path.depth() > 0 && previous.path.index(previous.path.depth() - 1) == JsonPointer.DASH) {
+            // the appended item can't be addressed the same way afterwards
+            return false;
+        }
+
+        if (setsValue && previous.path.equals(operation.path)) {
+            switch (operation.operation) {
+                case REPLACE:
+                    optimized.set(index, new JsonPatchOperation(previousOperation, previous.path, null, operation.value));
+                    return true;
+                case REMOVE:
+                    if (previousOperation == Operation.REPLACE && previous.path.depth() == 0) {
+                        // removing the root leaves an empty container of the replaced value's type
+                        if (!(previous.value instanceof JsonStructure)) {
+                            return false;
+                        }
+                        final JsonValue empty = previous.value instanceof JsonObject
+                                ? JsonValue.EMPTY_JSON_OBJECT : JsonValue.EMPTY_JSON_ARRAY;
+                        optimized.set(index, new JsonPatchOperation(Operation.REPLACE, previous.path, null, empty));
+                        return true;
+                    }
+                    if (previousOperation == Operation.REPLACE) {
+                        optimized.remove(index);
+                        append(optimized, operation);
+                        return true;
+                    }
+                    return false;
+                case TEST:
+                    return previous.value.equals(operation.value);
+                default:
+                    return false;
+            }
+        }
+
+        if (setsValue && previous.value instanceof JsonStructure && isProperPrefix(previous.path, operation.path)
+                && (operation.from == null || isProperPrefix(previous.path, operation.from))) {
+            final JsonValue folded = fold(previous, operation);
+            if (folded == null) {
+                return false;
+            }
+            if (folded != previous.value) {
+                optimized.set(index, new JsonPatchOperation(previousOperation, previous.path, null, folded));
+            }
+            return true;
+        }
+
+        if (previousOperation == Operation.COPY && operation.operation == Operation.REMOVE
+                && previous.from.equals(operation.path)
+                && !isPrefix(previous.from, previous.path) && !isPrefix(previous.path, previous.from)
+                && !shifts(previous.path, previous.from) && !shifts(previous.from, previous.path)) {
+            optimized.set(index, new JsonPatchOperation(Operation.MOVE, previous.path, previous.from, null));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies operation, located below the path previous sets, to the value previous sets.
+     *
+     * @return the new value, the same instance for a passing test or null if the operation doesn't apply
+     */
+    private static JsonValue fold(final JsonPatchOperation previous, final JsonPatchOperation operation) {
+        final JsonWorkingTree tree = new JsonWorkingTree((JsonStructure) previous.value);
+        final JsonPointer path = relative(previous.path, operation.path);
+        try {
+            switch (operation.operation) {
+                case ADD:
+                    tree.add(path, operation.value);
+                    break;
+                case REMOVE:
+                    tree.remove(path);
+                    break;
+                case REPLACE:
+                    tree.replace(path, operation.value);
+                    break;
+                case MOVE:
+                    tree.move(relative(previous.path, operation.from), path);
+                    break;
+                case COPY:
+                    tree.copy(relative(previous.path, operation.from), path);
+                    break;
+                case TEST:
+                    return tree.test(path, operation.value) ? previous.value : null;
+                default:
+                    return null;
+            }
+        } catch (final JsonException e) {
+            // keep the operation, it fails when the patch is applied
+            return null;
+        }
+        return tree.freeze();
+    }
+
+    private static JsonPointer relative(final JsonPointer base, final JsonPointer pointer) {
+        return new JsonPointer(pointer.toString().substring(base.toString().length()));
+    }
+
+    /**
+     * @return true if swapping the two operations can't change the result
+     */
+    static boolean independent(final JsonPatchOperation first, final JsonPatchOperation second) {
+        return independent(first.path, second, changesShape(first.operation))
+                && (first.from == null || independent(first.from, second, first.operation == Operation.MOVE));
+    }
+
+    private static boolean independent(final JsonPointer pointer, final JsonPatchOperation operation,
+                                       final boolean pointerChangesShape) {
+        return independent(pointer, pointerChangesShape, operation.path, changesShape(operation.operation))
+                && (operation.from == null
+                    || independent(pointer, pointerChangesShape, operation.from, operation.operation == Operation.MOVE));
+    }
+
+    private static boolean independent(final JsonPointer a, final boolean aChangesShape,
+                                       final JsonPointer b, final boolean bChangesShape) {
+        return !isPrefix(a, b) && !isPrefix(b, a)
+                && !(aChangesShape && shifts(a, b))
+                && !(bChangesShape && shifts(b, a));
+    }
+
+    private static boolean changesShape(final Operation operation) {
+        return operation != Operation.REPLACE && operation != Operation.TEST;
+    }
+
+    /**
+     * @return true if inserting or removing an item at pointer may move the location other points to
+     */
+    private static boolean shifts(final JsonPointer pointer, final JsonPointer other) {
+        final int parentDepth = pointer.depth() - 1;
+        if (parentDepth < 0 || other.depth() <= parentDepth) {
+            return false;
+        }
+        for (int i = 0; i < parentDepth; i++) {
+            if (!pointer.token(i).equals(other.token(i))) {
+                return false;
+            }
+        }
+        return pointer.index(parentDepth) != JsonPointer.NAME && other.index(parentDepth) != JsonPointer.NAME;
+    }
+
+    private static boolean isPrefix(final JsonPointer prefix, final JsonPointer pointer) {
+        if (prefix.depth() > pointer.depth()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.depth(); i++) {
+            if (!prefix.token(i).equals(pointer.token(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isProperPrefix(final JsonPointer prefix, final JsonPointer pointer) {
+        return prefix.depth() < pointer.depth() && isPrefix(prefix, pointer);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.function.Consumer;
+
+import javax.json.JsonPatch.Operation;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Receives the operations of a diff as they are found, so nested levels don't build intermediate arrays.
+ */
+interface JsonPatchSink {
+
+    /**
+     * @param from only set for move and copy
+     * @param value only set for add, replace and test
+     */
+    void operation(Operation operation, String path, String from, JsonValue value);
+
+    default void add(final String path, final JsonValue value) {
+        operation(Operation.ADD, path, null, value);
+    }
+
+    default void remove(final String path) {
+        operation(Operation.REMOVE, path, null, null);
+    }
+
+    default void replace(final String path, final JsonValue value) {
+        operation(Operation.REPLACE, path, null, value);
+    }
+
+    default void move(final String path, final String from) {
+        operation(Operation.MOVE, path, from, null);
+    }
+
+    static JsonPatchSink of(final JsonPatchBuilder builder) {
+        return builder::operation;
+    }
+
+    /**
+     * Writes each operation as an object, the caller writes the enclosing array.
+     */
+    static JsonPatchSink of(final JsonGenerator generator) {
+        return (operation, path, from, value) -> {
+            generator.writeStartObject()
+                    .write(JsonPatch.OP, operation.operationName())
+                    .write(JsonPatch.PATH, path);
+            if (from != null) {
+                generator.write(JsonPatch.FROM, from);
+            }
+            if (value != null) {
+                generator.write(JsonPatch.VALUE, value);
+            }
+            generator.writeEnd();
+        };
+    }
+
+    static JsonPatchSink of(final Consumer<? super JsonObject> consumer) {
+        return (operation, path, from, value) -> consumer.accept(new JsonPatchStep(operation, path, from, value).toJson());
+    }
+
+    final class Counting implements JsonPatchSink {
+        private final JsonPatchSink delegate;
+        private int count;
+
+        Counting(final JsonPatchSink delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void operation(final Operation operation, final String path, final String from, final JsonValue value) {
+            count++;
+            delegate.operation(operation, path, from, value);
+        }
+
+        int getCount() {
+            return count;
+        }
+    }
+}
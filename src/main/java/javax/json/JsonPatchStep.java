@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.Objects;
+
+import javax.json.JsonPatch.Operation;
+
+/**
+ * A patch operation as written, pointers are kept as strings and only compiled when the patch is applied.
+ */
+final class JsonPatchStep {
+    final Operation operation;
+    final String path;
+    // only set for move and copy
+    final String from;
+    // only set for add, replace and test
+    final JsonValue value;
+
+    JsonPatchStep(final Operation operation, final String path, final String from, final JsonValue value) {
+        // fail when recorded, not once the patch is built or applied
+        this.operation = operation;
+        this.path = Objects.requireNonNull(path, "path");
+        switch (operation) {
+            case MOVE:
+            case COPY:
+                this.from = Objects.requireNonNull(from, "from");
+                this.value = null;
+                break;
+            case ADD:
+            case REPLACE:
+            case TEST:
+                this.from = null;
+                this.value = Objects.requireNonNull(value, "value");
+                break;
+            default:
+                this.from = null;
+                this.value = null;
+        }
+    }
+
+    JsonPatchOperation compile() {
+        return new JsonPatchOperation(operation, JsonPointer.compile(path), from == null ? null : JsonPointer.compile(from), value);
+    }
+
+    JsonObject toJson() {
+        return JsonPatchOperation.toJson(operation, path, from, value);
+    }
+}
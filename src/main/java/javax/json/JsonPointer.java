@@ -17,16 +17,12 @@
 
 package javax.json;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.regex.Pattern;
+
+import javax.json.spi.JsonTrace;
+import javax.json.spi.JsonTraceListener;
+import javax.json.spi.JsonTraceListener.Operation;
 
 /**
  * https://tools.ietf.org/html/rfc6901
@@ -48,428 +44,366 @@ public final class JsonPointer {
         ; representing '~' and '/', respectively
 
      */
-    private static final Pattern POINTER_PATTERN = Pattern.compile("(/([^~/]|(~(0|1)))*)*");
+    static final int NAME = -1;
+    static final int DASH = -2;
+
+    private static final JsonPointerCache CACHE = new JsonPointerCache();
+
+    private static final String[] NO_TOKENS = new String[0];
+    private static final int[] NO_INDICES = new int[0];
+
     private final String jsonPointer;
-    private volatile List<String> tokens;
+
+    // unescaped reference tokens
+    private final String[] tokens;
+    // per token the array index it denotes, NAME if it can't be an array index or DASH for "-"
+    private final int[] indices;
 
     public JsonPointer(final String jsonPointer) {
-        if (jsonPointer == null || !POINTER_PATTERN.matcher(jsonPointer).matches()) {
-            throw new JsonException("Invalid Json pointer '"+jsonPointer+"'");
+        if (jsonPointer == null) {
+            throw new JsonException("Invalid Json pointer 'null'");
         }
 
         this.jsonPointer = jsonPointer;
-    }
 
-    @Override
-    public boolean equals(final Object obj) {
-        return jsonPointer.equals(obj);
-    }
-
-    @Override
-    public int hashCode() {
-        return jsonPointer.hashCode();
-    }
-
-    @Override
-    public String toString() {
-        return jsonPointer;
-    }
-
-    private void ensureTokenized() {
-        if (tokens == null) {
-            final String[] splits = jsonPointer.split("/");
-            tokens = new ArrayList<String>(splits.length);
-            Arrays.stream(splits).filter(t -> !t.isEmpty()).forEach(t -> tokens.add(t.replace("~1", "/").replace("~0", "~")));
+        if (jsonPointer.isEmpty()) {
+            tokens = NO_TOKENS;
+            indices = NO_INDICES;
+            return;
         }
-    }
 
-    public JsonValue getValue(final JsonStructure target) {
-        final NodeRef nr = getValue0(target);
-        if (nr.exists()) {
-            return nr.val;
-        } else {
-            throw new JsonException("No such element");
+        if (jsonPointer.charAt(0) != '/') {
+            throw new JsonException("Invalid Json pointer '" + jsonPointer + "'");
         }
-    }
-    
-    Optional<JsonValue> testValue(final JsonStructure target) {
-        final NodeRef nr = getValue0(target);
-        if (nr.exists()) {
-            return Optional.of(nr.val);
-        } else {
-            return Optional.empty();
+
+        int count = 0;
+        for (int i = 0; i < jsonPointer.length(); i++) {
+            if (jsonPointer.charAt(i) == '/') {
+                count++;
+            }
         }
-    }
 
-    private static class NodeRef {
-        private NodeRef parent;
-        private int index = -2;
-        private String key;
-        private JsonValue val; // leaf or structure
+        tokens = new String[count];
+        indices = new int[count];
 
-        public void setVal(final JsonValue val) {
-            this.val = val;
+        // validate, split and unescape in a single pass
+        int token = 0;
+        int start = 1;
+        StringBuilder unescaped = null;
+        for (int i = 1; i <= jsonPointer.length(); i++) {
+            final char c = i == jsonPointer.length() ? '/' : jsonPointer.charAt(i);
+            if (c == '/') {
+                final String value;
+                if (unescaped == null) {
+                    value = jsonPointer.substring(start, i);
+                } else {
+                    value = unescaped.append(jsonPointer, start, i).toString();
+                    unescaped = null;
+                }
+                tokens[token] = value;
+                indices[token] = toIndex(value);
+                token++;
+                start = i + 1;
+            } else if (c == '~') {
+                final char next = i + 1 < jsonPointer.length() ? jsonPointer.charAt(i + 1) : 0;
+                if (next != '0' && next != '1') {
+                    throw new JsonException("Invalid Json pointer '" + jsonPointer + "'");
+                }
+                if (unescaped == null) {
+                    unescaped = new StringBuilder(jsonPointer.length());
+                }
+                unescaped.append(jsonPointer, start, i).append(next == '0' ? '~' : '/');
+                i++;
+                start = i + 1;
+            }
         }
+    }
 
-        private final List<NodeRef> children = new ArrayList<NodeRef>();
-        private final int nestLevel;
+    /**
+     * Returns the compiled form of the pointer, reusing a cached instance when the same pointer
+     * was compiled recently. The cache is bounded, its size defaults to 512 and can be set with the
+     * <code>javax.json.JsonPointer.cacheSize</code> system property or {@link #setCacheSize(int)}.
+     *
+     * @throws JsonException if the pointer is not valid
+     */
+    public static JsonPointer compile(final String jsonPointer) {
+        return CACHE.get(jsonPointer);
+    }
 
-        public NodeRef(final JsonValue val) {
-            this(val, 0);
-        }
+    /**
+     * @param size maximum number of cached pointers, 0 disables caching
+     */
+    public static void setCacheSize(final int size) {
+        CACHE.setMaxSize(size);
+    }
 
-        public void rebuildFromChildren() {
+    public static int getCacheSize() {
+        return CACHE.getMaxSize();
+    }
 
-            if (isLeaf()) {
-                return;
-            }
+    public static long getCacheHitCount() {
+        return CACHE.getHitCount();
+    }
 
-            if (children.isEmpty()) {
-                return;
-            }
+    public static long getCacheMissCount() {
+        return CACHE.getMissCount();
+    }
 
-            for (final Iterator iterator = children.iterator(); iterator.hasNext();) {
-                final NodeRef nodeRef = (NodeRef) iterator.next();
-                nodeRef.rebuildFromChildren();
+    /**
+     * Drops all cached pointers and resets the hit and miss counters.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
 
+    /**
+     * array-index = %x30 / ( %x31-39 *(%x30-39) ), leading zeros are not allowed.
+     */
+    private static int toIndex(final String token) {
+        final int length = token.length();
+        if (length == 1 && token.charAt(0) == '-') {
+            return DASH;
+        }
+        if (length == 0 || length > 10 || (length > 1 && token.charAt(0) == '0')) {
+            return NAME;
+        }
+        long index = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return NAME;
             }
+            index = index * 10 + (c - '0');
+        }
+        return index > Integer.MAX_VALUE ? NAME : (int) index;
+    }
 
-            if (isObject()) {
-                final JsonObjectBuilder b = Json.createObjectBuilder();
+    int depth() {
+        return tokens.length;
+    }
 
-                for (final Iterator iterator = children.iterator(); iterator.hasNext();) {
-                    final NodeRef nodeRef = (NodeRef) iterator.next();
-                    b.add(nodeRef.key, nodeRef.val);
+    String token(final int depth) {
+        return tokens[depth];
+    }
 
-                }
-                val = b.build();
-            }
+    int index(final int depth) {
+        return indices[depth];
+    }
 
-            if (isArray()) {
-                final JsonArrayBuilder b = Json.createArrayBuilder();
-                children.sort(new Comparator<NodeRef>() {
-                    @Override
-                    public int compare(NodeRef o1, NodeRef o2) {
-                        // TODO Auto-generated method stub
-                        return o1.index==o2.index?0:(o1.index<o2.index?-1:1);
-                    }
-                });
-                
-                System.out.println("sorted children "+children);
-
-                int i=0;
-                for (final Iterator iterator = children.iterator(); iterator.hasNext();) {
-                    final NodeRef nodeRef = (NodeRef) iterator.next();
-                    b.add(i++, nodeRef.val);
-                    //i++
-                    //nodeRef.index
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof JsonPointer && jsonPointer.equals(JsonPointer.class.cast(obj).jsonPointer);
+    }
 
-                }
-                val = b.build();
-                System.out.println("as build "+val );
-            }
+    @Override
+    public int hashCode() {
+        return jsonPointer.hashCode();
+    }
 
-        }
+    @Override
+    public String toString() {
+        return jsonPointer;
+    }
 
-        public NodeRef(final JsonValue val, final int level) {
-            super();
-            this.val = val;
-            this.nestLevel = level;
+    public JsonValue getValue(final JsonStructure target) {
+        final JsonTraceListener listener = JsonTrace.getListener();
+        final long start = listener == null ? 0 : System.nanoTime();
 
-            if (val instanceof JsonObject) {
-                final JsonObject o = val.asJsonObject();
-                final Set<Entry<String, JsonValue>> es = o.entrySet();
-                for (final Entry<String, JsonValue> entry : es) {
-                    addChild0(entry.getValue(), -2, entry.getKey());
-                }
+        final JsonValue value = resolve(target);
 
-            } else if (val instanceof JsonArray) {
-                final JsonArray a = val.asJsonArray();
-                for (int i = 0; i < a.size(); i++) {
-                    addChild0(a.get(i), i, null);
-                }
-            }
+        if (listener != null) {
+            listener.trace(Operation.POINTER_GET, jsonPointer, tokens.length, System.nanoTime() - start);
         }
-
-        private NodeRef addChild0(final JsonValue val, final int index, final String key) {
-            if (!exists()) {
-                throw new JsonException("cannot add to non existing");
-            }
-            
-            
-            
-            
-            final NodeRef c = new NodeRef(val, nestLevel + 1);
-            c.index = index;
-            c.key = key;
-            c.parent = this;
-            if(index >= 0) {
-                children.add(index, c);
-            } else
-            children.add(c);
-            return c;
+        if (value == null) {
+            throw new JsonException("No such element");
         }
+        return value;
+    }
+    
+    Optional<JsonValue> testValue(final JsonStructure target) {
+        return Optional.ofNullable(resolve(target));
+    }
 
-        private NodeRef getParent() {
-            return parent;
-        }
+    /**
+     * @return an editor applying pointer mutations to the target with a single rebuild
+     */
+    public static JsonStructureEditor edit(final JsonStructure target) {
+        return new JsonStructureEditor(target);
+    }
 
-        private List<NodeRef> getChildren() {
-            return children;
-        }
+    /**
+     * Resolves the pointer once, the returned handle evaluates further pointers relative to the
+     * referenced value without walking its ancestors again.
+     *
+     * @throws JsonException if the referenced value doesn't exist
+     */
+    public JsonPointerHandle getHandle(final JsonStructure target) {
+        Objects.requireNonNull(target);
+        return JsonPointerHandle.root(target).getHandle(this);
+    }
 
-        private Optional<NodeRef> getChild(final int index) {
-            NodeRef r;
-            if (index < children.size() && (r = children.get(index)) != null) {
-                return Optional.of(r);
+    /**
+     * Walks only the values named by the pointer, nothing is copied.
+     *
+     * @return the referenced value or null if only the last token doesn't exist
+     */
+    JsonValue resolve(final JsonValue start) {
+        Objects.requireNonNull(start);
+
+        JsonValue current = start;
+        for (int i = 0; i < tokens.length; i++) {
+            current = step(current, tokens[i], indices[i]);
+            if (current == null) {
+                if (i != tokens.length - 1) {
+                    throw new JsonException("end reached");
+                }
+                return null;
             }
-
-            return Optional.empty();
         }
+        return current;
+    }
 
-        private Optional<NodeRef> getChild(final String key) {
-            return children.stream().filter(r -> r.key.equals(key)).findFirst();
+    /**
+     * @return the child referenced by the token or null if it doesn't exist
+     */
+    static JsonValue step(final JsonValue current, final String token, final int index) {
+        if (current instanceof JsonObject) {
+            return JsonObject.class.cast(current).get(token);
         }
 
-        private NodeRef getRoot() {
-
-            if (parent == null) {
-                return this;
-            }
-
-            NodeRef root = parent;
-
-            while (root.parent != null) {
-                root = root.parent;
-            }
-
-            return root;
-        }
+        if (current instanceof JsonArray) {
+            final JsonArray array = JsonArray.class.cast(current);
+            final int size = array.size();
 
-        @Override
-        public String toString() {
-            final StringBuilder sb = new StringBuilder();
-            for (final Iterator iterator = children.iterator(); iterator.hasNext();) {
-                final NodeRef nodeRef = (NodeRef) iterator.next();
-                sb.append(nodeRef.toString());
+            if (index == NAME) {
+                throw new JsonException("Cannot parse '" + token + "' to an unsigned integer");
+            } else if (index == DASH || index == size) {
+                return null;
+            } else if (index > size) {
+                throw new JsonException("No such element (" + index + " is out of bounds (" + size + "))");
             }
-            final StringBuilder id = new StringBuilder();
-            for (int i = 0; i < nestLevel; i++) {
-                id.append("-");
-            }
-
-            final String ident = id.toString();
-
-            return ident
-                    + (parent == null ? "ROOT" : (!exists() ? "<non exist>" : val.getValueType()) + "(" + (index == -2 ? key : index)
-                            + ")l" + nestLevel) + System.lineSeparator() + sb;
-
-        }
-
-        public boolean exists() {
-            return val != null;
+            return array.get(index);
         }
 
-        public boolean isStructure() {
-            return exists() && (val instanceof JsonObject || val instanceof JsonArray);
-        }
+        throw new JsonException("No such element, '" + token + "' can't be applied to a " + current.getValueType());
+    }
 
-        public boolean isObject() {
-            return exists() && val instanceof JsonObject;
+    /**
+     * Escapes '~' and '/' of a reference token.
+     */
+    static String escape(final String token) {
+        if (token.indexOf('~') < 0 && token.indexOf('/') < 0) {
+            return token;
         }
+        return token.replace("~", "~0").replace("/", "~1");
+    }
 
-        public boolean isArray() {
-            return exists() && val instanceof JsonArray;
-        }
+    public JsonStructure add(final JsonStructure target, final JsonValue value) {
+        return traced(target, Mutation.ADD, Objects.requireNonNull(value));
+    }
 
-        public boolean isLeaf() {
-            return !isStructure() && exists();
-        }
+    public JsonStructure replace(final JsonStructure target, final JsonValue value) {
+        return traced(target, Mutation.REPLACE, Objects.requireNonNull(value));
+    }
 
-        public boolean parentIsObject() {
-            return key != null;
-        }
+    public JsonStructure remove(final JsonStructure target) {
+        return traced(target, Mutation.REMOVE, null);
+    }
 
-        public int getIndex() {
-            return index;
-        }
+    private enum Mutation {
+        ADD(Operation.POINTER_ADD), REPLACE(Operation.POINTER_REPLACE), REMOVE(Operation.POINTER_REMOVE);
 
-        public String getKey() {
-            return key;
-        }
+        private final Operation operation;
 
-        public JsonValue getVal() {
-            return val;
+        Mutation(final Operation operation) {
+            this.operation = operation;
         }
+    }
 
-        public int getNestLevel() {
-            return nestLevel;
+    private JsonStructure traced(final JsonStructure target, final Mutation mutation, final JsonValue value) {
+        final JsonTraceListener listener = JsonTrace.getListener();
+        if (listener == null) {
+            return mutate(target, mutation, value);
         }
 
+        final long start = System.nanoTime();
+        final JsonStructure result = mutate(target, mutation, value);
+        listener.trace(mutation.operation, jsonPointer, tokens.length, System.nanoTime() - start);
+        return result;
     }
 
-    private NodeRef getValue0(final JsonStructure target) {
+    private JsonStructure mutate(final JsonStructure target, final Mutation mutation, final JsonValue value) {
         Objects.requireNonNull(target);
-        ensureTokenized();
-        final NodeRef root = new NodeRef(target);
-        System.out.println(jsonPointer+" :: "+tokens);
-        if (jsonPointer.isEmpty()) {
-            return root;
-        }
-        
-        if (tokens.isEmpty()) {
-            tokens.add("");
-        }
 
-        NodeRef curref = root;
-
-        for (int i = 0; i < tokens.size(); i++) {
-            final String token = tokens.get(i);
-            
-            //System.out.println("evaluate " + token + " on " + curref.getNestLevel()
-            //        + (curref.getVal() == null ? "NULL" : curref.getVal().getValueType()));
+        if (tokens.length == 0) {
+            if (mutation == Mutation.REMOVE) {
+                return target instanceof JsonObject ? JsonValue.EMPTY_JSON_OBJECT : JsonValue.EMPTY_JSON_ARRAY;
+            }
+            if (value instanceof JsonStructure) {
+                return JsonStructure.class.cast(value);
+            }
+            throw new JsonException("simple val not supported");
+        }
 
-            if (curref.isObject()) {
-                System.out.println("evaluate token "+token+" on object");
-                final Optional<NodeRef> tmp = curref.getChild(token);
-                if (tmp.isPresent()) {
-                    curref = tmp.get();
-                } else {
+        return JsonStructure.class.cast(mutate(target, 0, mutation, value));
+    }
 
-                    if (i != tokens.size() - 1) {
-                        throw new JsonException("end reached");
-                    }
+    /**
+     * Only the ancestors of the mutated location are copied,
+     * all other values are shared by reference with the original structure.
+     */
+    private JsonValue mutate(final JsonValue current, final int depth, final Mutation mutation, final JsonValue value) {
+        final String token = tokens[depth];
+        final boolean last = depth == tokens.length - 1;
 
-                    return curref.addChild0(null, -2, token);
-                }
-            } else if (curref.isArray()) {
-                System.out.println("evaluate token "+token+" on array");
-                final int size = curref.getVal().asJsonArray().size();
-
-                if (token.equals("-")) {
-                    // dash
-                    if (i != tokens.size() - 1) {
-                        throw new JsonException("end reached");
-                    }
-                    return curref.addChild0(null, size, null); 
-                }
+        if (current instanceof JsonObject) {
+            final JsonObject object = JsonObject.class.cast(current);
 
-                try {
-                    final int index = Integer.parseUnsignedInt(token);
-
-                    if (index > size) {
-                        throw new JsonException("No such element (" + index + " is out of bounds (" + size + "))");
-                    } else if (index == size) {
-                        // dash
-                        if (i != tokens.size() - 1) {
-                            throw new JsonException("end reached");
-                        }
-                        return curref.addChild0(null, size, null);
-                    }
-
-                    curref = curref.getChildren().get(index);
-                } catch (NumberFormatException e) {
-                    throw new JsonException("Cannot parse '"+token+"' to an unsigned integer");
-                }
-            } else if (curref.isLeaf()) {
-                
-                if(!curref.exists()) {
-                    throw new RuntimeException("leaf does not exist");
+            if (last) {
+                if (mutation != Mutation.ADD && !object.containsKey(token)) {
+                    throw new JsonException("node does not exist");
                 }
-                
-                if (i != tokens.size() - 1) {
-                    throw new JsonException("end reached");
-                }
-                
-                if(curref.getParent().isArray()) {
-                    try {
-                        int index = Integer.parseUnsignedInt(token);
-                    } catch (NumberFormatException e) {
-                        throw new JsonException("Cannot parse '"+token+"' to an unsigned integer");
-                    }
-                }
-                
-                if(curref.getParent().isObject()) {
-                   
-                        throw new JsonException("Cannot parse '"+token+"' to an unsigned integer");
-                    
-                }
-                
-            } else {
-                throw new JsonException("does not exists");
+                final JsonObjectBuilder b = Json.createObjectBuilder(object);
+                return (mutation == Mutation.REMOVE ? b.remove(token) : b.add(token, value)).build();
             }
-        }
 
-        return curref;
-    }
-
-    public JsonStructure add(final JsonStructure target, final JsonValue value) {
-        final NodeRef node = getValue0(target);
-        System.out.println(node.toString());
-        System.out.println("newval: " + value);
-        
-        if(node.exists()) {
-            if(node.getParent().isArray()) {
-                node.getParent().addChild0(value, node.index, null);
-            } else if (node.getParent().isObject()) {
-                node.getParent().addChild0(value, -2, node.key);
-            } else {
-                throw new JsonException("cannot add to value");
+            final JsonValue child = object.get(token);
+            if (child == null) {
+                throw new JsonException("end reached");
             }
-            
-        } else {
-            node.setVal(value);
-        }
-        
-        
-        return foldNodesFrom(node);
-    }
-
-    private JsonStructure foldNodesFrom(final NodeRef node) {
-        //System.out.println(node.getRoot());
-        node.getRoot().rebuildFromChildren();
-        JsonValue v = node.getRoot().getVal();
-        
-        if(v instanceof JsonStructure) return  (JsonStructure) v;
-        throw new JsonException("simple val not supported");
-    }
-
-    public JsonStructure replace(final JsonStructure target, final JsonValue value) {
-        final NodeRef node = getValue0(target);
-        System.out.println(node.toString());
-        System.out.println("repl: " + value);
-        if (!node.exists()) {
-            throw new JsonException("node does not exist");
+            return Json.createObjectBuilder(object).add(token, mutate(child, depth + 1, mutation, value)).build();
         }
 
-        //System.out.println(node.getRoot().toString());
-        node.setVal(value);
-        node.getChildren().clear();
+        if (current instanceof JsonArray) {
+            final JsonArray array = JsonArray.class.cast(current);
+            final int size = array.size();
+            final int index = indices[depth];
 
-        return foldNodesFrom(node);
+            if (index == NAME) {
+                throw new JsonException("Cannot parse '" + token + "' to an unsigned integer");
+            }
+            if (index > size) {
+                throw new JsonException("No such element (" + index + " is out of bounds (" + size + "))");
+            }
 
-    }
+            if (last) {
+                final JsonArrayBuilder b = Json.createArrayBuilder(array);
+                if (mutation == Mutation.ADD) {
+                    return b.add(index == DASH ? size : index, value).build();
+                }
+                if (index == DASH || index == size) {
+                    throw new JsonException("node does not exist");
+                }
+                return (mutation == Mutation.REMOVE ? b.remove(index) : b.set(index, value)).build();
+            }
 
-    public JsonStructure remove(final JsonStructure target) {
-        final NodeRef node = getValue0(target);
-        System.out.println(node.toString());
-        if (!node.exists()) {
-            throw new JsonException("node does not exist");
+            if (index == DASH || index == size) {
+                throw new JsonException("end reached");
+            }
+            return Json.createArrayBuilder(array).set(index, mutate(array.get(index), depth + 1, mutation, value)).build();
         }
 
-        //System.out.println(node.getRoot().toString());
-
-        if (node.getParent() == null) {
-            return node.isObject() ? JsonValue.EMPTY_JSON_OBJECT : JsonValue.EMPTY_JSON_ARRAY;
-        }
-        
-        System.out.println(node.getParent().toString());
-        
-        node.getParent().setVal(node.getParent().isArray()?JsonValue.EMPTY_JSON_ARRAY:JsonValue.EMPTY_JSON_OBJECT);
-        if(!node.getParent().getChildren().remove(node)) {
-            throw new JsonException("could not remove node");
-        }
-        return foldNodesFrom(node.getParent());
+        throw new JsonException("No such element, '" + token + "' can't be applied to a " + current.getValueType());
     }
 
     public JsonObject add(final JsonObject target, final JsonValue value) {
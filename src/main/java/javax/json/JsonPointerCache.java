@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of compiled pointers using CLOCK (second chance) eviction:
+ * a hit only sets a flag, the eviction sweep drops entries not used since its last pass.
+ */
+final class JsonPointerCache {
+
+    static final String SIZE_PROPERTY = "javax.json.JsonPointer.cacheSize";
+    private static final int DEFAULT_SIZE = 512;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile int maxSize;
+
+    // clock hand, only touched under evictionLock
+    private Iterator<Entry> hand;
+
+    JsonPointerCache() {
+        this(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+    }
+
+    JsonPointerCache(final int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    JsonPointer get(final String jsonPointer) {
+        if (jsonPointer == null) {
+            // let the constructor report it
+            return new JsonPointer(jsonPointer);
+        }
+
+        final Entry entry = entries.get(jsonPointer);
+        if (entry != null) {
+            hits.increment();
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.pointer;
+        }
+
+        misses.increment();
+        final JsonPointer pointer = new JsonPointer(jsonPointer);
+        if (maxSize > 0) {
+            entries.putIfAbsent(jsonPointer, new Entry(pointer));
+            if (entries.size() > maxSize) {
+                evict();
+            }
+        }
+        return pointer;
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            // somebody else is already sweeping
+            return;
+        }
+        try {
+            // two full rounds are enough to find unreferenced entries
+            int budget = entries.size() * 2;
+            while (entries.size() > maxSize && budget-- > 0) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.values().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                final Entry entry = hand.next();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else {
+                    hand.remove();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    void setMaxSize(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("cache size must not be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        if (maxSize == 0) {
+            entries.clear();
+        } else if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    private static final class Entry {
+        private final JsonPointer pointer;
+        // racy on purpose, a lost update only costs one more sweep round
+        private volatile boolean referenced;
+
+        private Entry(final JsonPointer pointer) {
+            this.pointer = pointer;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A value resolved by a {@link JsonPointer} together with the path leading to it.
+ * Pointers are evaluated relative to the handle without walking from the document root again.
+ *
+ * Relative pointers follow https://tools.ietf.org/html/draft-handrews-relative-json-pointer-01:
+ * a non negative integer giving the number of levels to go up, followed either by a JSON pointer
+ * evaluated from there or by '#' which yields the member name or array index of the node reached.
+ */
+public final class JsonPointerHandle {
+
+    // values[0] is the root, values[depth] the referenced value
+    private final JsonValue[] values;
+    // tokens[i] leads from values[i] to values[i + 1]
+    private final String[] tokens;
+    private final int depth;
+
+    private JsonPointerHandle(final JsonValue[] values, final String[] tokens, final int depth) {
+        this.values = values;
+        this.tokens = tokens;
+        this.depth = depth;
+    }
+
+    static JsonPointerHandle root(final JsonStructure root) {
+        return new JsonPointerHandle(new JsonValue[] { root }, new String[0], 0);
+    }
+
+    /**
+     * @return the value this handle references
+     */
+    public JsonValue getValue() {
+        return values[depth];
+    }
+
+    public JsonStructure getRoot() {
+        return JsonStructure.class.cast(values[0]);
+    }
+
+    /**
+     * @return the absolute pointer of the referenced value
+     */
+    public JsonPointer getPointer() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append('/').append(JsonPointer.escape(tokens[i]));
+        }
+        return JsonPointer.compile(sb.toString());
+    }
+
+    /**
+     * Evaluates the pointer with the referenced value as root.
+     *
+     * @throws JsonException if the value doesn't exist
+     */
+    public JsonValue getValue(final JsonPointer pointer) {
+        final JsonValue value = pointer.resolve(values[depth]);
+        if (value == null) {
+            throw new JsonException("No such element");
+        }
+        return value;
+    }
+
+    /**
+     * Evaluates a relative JSON pointer, for instance "0/name", "2/items/0" or "1#".
+     *
+     * @throws JsonException if the pointer is invalid or the value doesn't exist
+     */
+    public JsonValue getValue(final String relativePointer) {
+        final int separator = prefixLength(relativePointer);
+        final int levels = levels(relativePointer, separator);
+
+        if (separator < relativePointer.length() && relativePointer.charAt(separator) == '#') {
+            if (separator + 1 != relativePointer.length()) {
+                throw new JsonException("Invalid relative Json pointer '" + relativePointer + "'");
+            }
+            final int target = depth - levels;
+            if (target == 0) {
+                throw new JsonException("The root has no name or index");
+            }
+            final String token = tokens[target - 1];
+            return values[target - 1] instanceof JsonArray
+                    ? Json.createValue(Integer.parseInt(token)) : Json.createValue(token);
+        }
+
+        final JsonValue value = JsonPointer.compile(relativePointer.substring(separator)).resolve(values[depth - levels]);
+        if (value == null) {
+            throw new JsonException("No such element");
+        }
+        return value;
+    }
+
+    /**
+     * @return a handle on the value the pointer references from this handle
+     * @throws JsonException if the value doesn't exist
+     */
+    public JsonPointerHandle getHandle(final JsonPointer pointer) {
+        return descend(depth, pointer);
+    }
+
+    /**
+     * @param relativePointer a relative JSON pointer without the '#' form
+     * @return a handle on the value the relative pointer references
+     * @throws JsonException if the pointer is invalid or the value doesn't exist
+     */
+    public JsonPointerHandle getHandle(final String relativePointer) {
+        final int separator = prefixLength(relativePointer);
+        final int levels = levels(relativePointer, separator);
+        return descend(depth - levels, JsonPointer.compile(relativePointer.substring(separator)));
+    }
+
+    private JsonPointerHandle descend(final int from, final JsonPointer pointer) {
+        final int length = from + pointer.depth();
+        final JsonValue[] newValues = Arrays.copyOf(values, length + 1);
+        final String[] newTokens = Arrays.copyOf(tokens, length);
+
+        JsonValue current = values[from];
+        for (int i = 0; i < pointer.depth(); i++) {
+            final String token = pointer.token(i);
+            current = JsonPointer.step(current, token, pointer.index(i));
+            if (current == null) {
+                throw new JsonException("No such element");
+            }
+            newTokens[from + i] = token;
+            newValues[from + i + 1] = current;
+        }
+        return new JsonPointerHandle(newValues, newTokens, length);
+    }
+
+    private static int prefixLength(final String relativePointer) {
+        Objects.requireNonNull(relativePointer);
+        int i = 0;
+        while (i < relativePointer.length() && relativePointer.charAt(i) >= '0' && relativePointer.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == 0 || (i > 1 && relativePointer.charAt(0) == '0')) {
+            throw new JsonException("Invalid relative Json pointer '" + relativePointer + "'");
+        }
+        return i;
+    }
+
+    private int levels(final String relativePointer, final int prefixLength) {
+        final int levels;
+        try {
+            levels = Integer.parseInt(relativePointer.substring(0, prefixLength));
+        } catch (final NumberFormatException e) {
+            throw new JsonException("Invalid relative Json pointer '" + relativePointer + "'", e);
+        }
+        if (levels > depth) {
+            throw new JsonException("Relative Json pointer '" + relativePointer + "' goes above the root");
+        }
+        return levels;
+    }
+
+    @Override
+    public String toString() {
+        return getPointer().toString();
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * A set of JSON pointers merged into a token trie so all of them are resolved
+ * with a single traversal of the target, shared prefixes are only walked once.
+ */
+public final class JsonPointerSet {
+
+    private final JsonPointer[] pointers;
+    private final Node root = new Node(null, JsonPointer.NAME);
+
+    private JsonPointerSet(final JsonPointer[] pointers) {
+        this.pointers = pointers;
+        for (int ordinal = 0; ordinal < pointers.length; ordinal++) {
+            final JsonPointer pointer = pointers[ordinal];
+            Node node = root;
+            for (int depth = 0; depth < pointer.depth(); depth++) {
+                node = node.child(pointer.token(depth), pointer.index(depth));
+            }
+            node.addOrdinal(ordinal);
+        }
+    }
+
+    /**
+     * @param jsonPointers the pointers, their iteration order defines the ordinals of the results
+     * @throws JsonException if one of the pointers is invalid
+     */
+    public static JsonPointerSet compile(final Collection<String> jsonPointers) {
+        final JsonPointer[] pointers = new JsonPointer[jsonPointers.size()];
+        int i = 0;
+        for (final String jsonPointer : jsonPointers) {
+            pointers[i++] = JsonPointer.compile(jsonPointer);
+        }
+        return new JsonPointerSet(pointers);
+    }
+
+    public int size() {
+        return pointers.length;
+    }
+
+    public JsonPointer getPointer(final int ordinal) {
+        return pointers[ordinal];
+    }
+
+    /**
+     * @return the referenced values indexed by pointer ordinal, null for pointers which don't resolve
+     */
+    public JsonValue[] getValues(final JsonStructure target) {
+        Objects.requireNonNull(target);
+        final JsonValue[] values = new JsonValue[pointers.length];
+        visit(root, target, values);
+        return values;
+    }
+
+    /**
+     * @return the referenced values by pointer in ordinal order, pointers which don't resolve are missing
+     */
+    public Map<String, JsonValue> getValueMap(final JsonStructure target) {
+        return toMap(getValues(target));
+    }
+
+    /**
+     * Resolves the pointers while streaming the next value of the parser, only matched values are
+     * materialized and unmatched subtrees are skipped. Reading stops as soon as all pointers are resolved,
+     * so the parser may be left in the middle of the document.
+     *
+     * @param parser a parser positioned before the value to evaluate the pointers against
+     * @return the referenced values indexed by pointer ordinal, null for pointers which don't resolve
+     */
+    public JsonValue[] getValues(final JsonParser parser) {
+        Objects.requireNonNull(parser);
+        final JsonValue[] values = new JsonValue[pointers.length];
+        if (parser.hasNext()) {
+            new StreamingVisit(parser, values).visit(root, parser.next());
+        }
+        return values;
+    }
+
+    /**
+     * Streaming flavor of {@link #getValueMap(JsonStructure)}, see {@link #getValues(JsonParser)}.
+     */
+    public Map<String, JsonValue> getValueMap(final JsonParser parser) {
+        return toMap(getValues(parser));
+    }
+
+    private Map<String, JsonValue> toMap(final JsonValue[] values) {
+        final Map<String, JsonValue> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                map.put(pointers[i].toString(), values[i]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * @return the number of resolved pointers
+     */
+    private static int visit(final Node node, final JsonValue value, final JsonValue[] values) {
+        int resolved = node.ordinalCount;
+        for (int i = 0; i < node.ordinalCount; i++) {
+            values[node.ordinals[i]] = value;
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            final Node child = node.children[i];
+            final JsonValue childValue = child.select(value);
+            if (childValue != null) {
+                resolved += visit(child, childValue, values);
+            }
+        }
+        return resolved;
+    }
+
+    private final class StreamingVisit {
+        private final JsonParser parser;
+        private final JsonEventReader reader;
+        private final JsonValue[] values;
+        private int remaining = pointers.length;
+
+        private StreamingVisit(final JsonParser parser, final JsonValue[] values) {
+            this.parser = parser;
+            this.reader = new JsonEventReader(parser);
+            this.values = values;
+        }
+
+        /**
+         * @param event the first event of the value node points to
+         */
+        private void visit(final Node node, final Event event) {
+            if (node.ordinalCount > 0) {
+                // the pointer itself and all pointers below it are answered by the materialized value
+                remaining -= JsonPointerSet.visit(node, reader.readValue(event), values);
+                return;
+            }
+
+            if (event == Event.START_OBJECT) {
+                Event next;
+                while (remaining > 0 && (next = parser.next()) != Event.END_OBJECT) {
+                    final Node child = node.child(parser.getString());
+                    next = parser.next();
+                    if (child == null) {
+                        reader.skip(next);
+                    } else {
+                        visit(child, next);
+                    }
+                }
+            } else if (event == Event.START_ARRAY) {
+                int index = 0;
+                Event next;
+                while (remaining > 0 && (next = parser.next()) != Event.END_ARRAY) {
+                    final Node child = node.child(index++);
+                    if (child == null) {
+                        reader.skip(next);
+                    } else {
+                        visit(child, next);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+        private final String token;
+        private final int index;
+
+        private Node[] children = new Node[0];
+        private int childCount;
+        private int[] ordinals = new int[0];
+        private int ordinalCount;
+
+        private Node(final String token, final int index) {
+            this.token = token;
+            this.index = index;
+        }
+
+        private Node child(final String childToken, final int childIndex) {
+            final Node existing = child(childToken);
+            if (existing != null) {
+                return existing;
+            }
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            final Node child = new Node(childToken, childIndex);
+            children[childCount++] = child;
+            return child;
+        }
+
+        private void addOrdinal(final int ordinal) {
+            if (ordinalCount == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(1, ordinalCount * 2));
+            }
+            ordinals[ordinalCount++] = ordinal;
+        }
+
+        private Node child(final String name) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].token.equals(name)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node child(final int arrayIndex) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].index == arrayIndex) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private JsonValue select(final JsonValue parent) {
+            if (parent instanceof JsonObject) {
+                return JsonObject.class.cast(parent).get(token);
+            }
+            if (parent instanceof JsonArray) {
+                final JsonArray array = JsonArray.class.cast(parent);
+                return index >= 0 && index < array.size() ? array.get(index) : null;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Diff of two documents read in lockstep from parsers, see {@link JsonPatch#diff(JsonParser, JsonParser, javax.json.stream.JsonGenerator)}.
+ *
+ * Object members met under the same key at the same place and array items at the same index are compared
+ * event by event without being materialized. Only members which are out of order are buffered until their
+ * counterpart shows up (or the object ends), then diffed in memory.
+ */
+final class JsonStreamingDiff {
+    private final JsonEventReader source;
+    private final JsonEventReader target;
+    private final JsonPatchSink sink;
+
+    JsonStreamingDiff(final JsonParser source, final JsonParser target, final JsonPatchSink sink) {
+        this.source = new JsonEventReader(source);
+        this.target = new JsonEventReader(target);
+        this.sink = sink;
+    }
+
+    void diff() {
+        diff("", source.parser().next(), target.parser().next());
+    }
+
+    private void diff(final String path, final Event sourceEvent, final Event targetEvent) {
+        if (sourceEvent == Event.START_OBJECT && targetEvent == Event.START_OBJECT) {
+            diffObjects(path);
+        } else if (sourceEvent == Event.START_ARRAY && targetEvent == Event.START_ARRAY) {
+            diffArrays(path);
+        } else if (sourceEvent == Event.START_OBJECT || sourceEvent == Event.START_ARRAY
+                || targetEvent == Event.START_OBJECT || targetEvent == Event.START_ARRAY) {
+            source.skip(sourceEvent);
+            sink.replace(path, target.readValue(targetEvent));
+        } else {
+            final JsonValue sourceValue = source.readValue(sourceEvent);
+            final JsonValue targetValue = target.readValue(targetEvent);
+            if (!sourceValue.equals(targetValue)) {
+                sink.replace(path, targetValue);
+            }
+        }
+    }
+
+    private void diffObjects(final String path) {
+        final JsonParser sourceParser = source.parser();
+        final JsonParser targetParser = target.parser();
+
+        // members seen on one side only so far
+        final Map<String, JsonValue> pendingSource = new LinkedHashMap<>();
+        final Map<String, JsonValue> pendingTarget = new LinkedHashMap<>();
+        boolean sourceEnded = false;
+        boolean targetEnded = false;
+        while (!sourceEnded || !targetEnded) {
+            final String sourceKey = sourceEnded || sourceParser.next() == Event.END_OBJECT ? null : sourceParser.getString();
+            final String targetKey = targetEnded || targetParser.next() == Event.END_OBJECT ? null : targetParser.getString();
+            sourceEnded = sourceKey == null;
+            targetEnded = targetKey == null;
+
+            if (sourceKey != null && sourceKey.equals(targetKey)) {
+                diff(path + "/" + JsonPointer.escape(sourceKey), sourceParser.next(), targetParser.next());
+                continue;
+            }
+            if (sourceKey != null) {
+                final JsonValue sourceValue = source.readValue(sourceParser.next());
+                final JsonValue targetValue = pendingTarget.remove(sourceKey);
+                if (targetValue != null) {
+                    diffValues(path + "/" + JsonPointer.escape(sourceKey), sourceValue, targetValue);
+                } else {
+                    pendingSource.put(sourceKey, sourceValue);
+                }
+            }
+            if (targetKey != null) {
+                final JsonValue targetValue = target.readValue(targetParser.next());
+                final JsonValue sourceValue = pendingSource.remove(targetKey);
+                if (sourceValue != null) {
+                    diffValues(path + "/" + JsonPointer.escape(targetKey), sourceValue, targetValue);
+                } else {
+                    pendingTarget.put(targetKey, targetValue);
+                }
+            }
+        }
+
+        for (final String key : pendingSource.keySet()) {
+            sink.remove(path + "/" + JsonPointer.escape(key));
+        }
+        for (final Map.Entry<String, JsonValue> member : pendingTarget.entrySet()) {
+            sink.add(path + "/" + JsonPointer.escape(member.getKey()), member.getValue());
+        }
+    }
+
+    private void diffArrays(final String path) {
+        final JsonParser sourceParser = source.parser();
+        final JsonParser targetParser = target.parser();
+
+        // items are compared by position, trailing ones are removed or added
+        int index = 0;
+        Event sourceEvent = sourceParser.next();
+        Event targetEvent = targetParser.next();
+        while (sourceEvent != Event.END_ARRAY && targetEvent != Event.END_ARRAY) {
+            diff(path + "/" + index++, sourceEvent, targetEvent);
+            sourceEvent = sourceParser.next();
+            targetEvent = targetParser.next();
+        }
+        while (sourceEvent != Event.END_ARRAY) {
+            source.skip(sourceEvent);
+            sink.remove(path + "/" + index);
+            sourceEvent = sourceParser.next();
+        }
+        while (targetEvent != Event.END_ARRAY) {
+            sink.add(path + "/" + index++, target.readValue(targetEvent));
+            targetEvent = targetParser.next();
+        }
+    }
+
+    private void diffValues(final String path, final JsonValue sourceValue, final JsonValue targetValue) {
+        if (!sourceValue.equals(targetValue)) {
+            new JsonDiff(new JsonStructuralHashes()).diff(path, sourceValue, targetValue, sink);
+        }
+    }
+}
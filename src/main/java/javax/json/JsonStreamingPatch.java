@@ -0,0 +1,622 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.json.spi.JsonMetrics;
+import javax.json.spi.JsonPatchMetrics;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Applies a patch while copying a document from a parser to a generator,
+ * see {@link JsonPatch#apply(JsonParser, JsonGenerator)}.
+ *
+ * Only the values the operations point to (path and from) are materialized, as slots: an object member or array item,
+ * or the whole array when an operation inserts or removes one of its items since that shifts the others. Everything
+ * else is copied event by event. Operations are grouped in components of operations which may depend on each other,
+ * found through the trie of their pointers: a pointer only conflicts with the ones above or below it, and with the ones
+ * below the items of an array another pointer inserts into or removes from;
+ * a component runs once all its slots are read and a slot is written once all components using it ran. Output
+ * following a slot which can't be written yet, e.g. the target of a move whose from comes later in the document,
+ * is buffered until it can.
+ */
+final class JsonStreamingPatch {
+    private static final Slot UNREACHABLE = new Slot(null, 0, null);
+
+    private final JsonPatchOperation[] operations;
+    private final JsonParser parser;
+    private final JsonEventReader reader;
+    private final JsonGenerator generator;
+
+    private final Node root = new Node(0, false);
+    // for each operation its path and, for move and copy, from
+    private final Ref[][] refs;
+    private final Component[] components;
+    private final ArrayDeque<Item> pending = new ArrayDeque<>();
+
+    JsonStreamingPatch(final JsonPatchOperation[] operations, final JsonParser parser, final JsonGenerator generator) {
+        this.operations = operations;
+        this.parser = parser;
+        this.reader = new JsonEventReader(parser);
+        this.generator = generator;
+
+        refs = new Ref[operations.length][];
+        for (int i = 0; i < operations.length; i++) {
+            final JsonPatchOperation operation = operations[i];
+            refs[i] = operation.from == null
+                    ? new Ref[] { new Ref(i, operation.path) }
+                    : new Ref[] { new Ref(i, operation.path), new Ref(i, operation.from) };
+            for (final Ref ref : refs[i]) {
+                root.insert(ref);
+            }
+        }
+        components = components();
+    }
+
+    private Component[] components() {
+        // union-find of the operations which can't be reordered, only refs sharing a prefix in the trie can conflict
+        final int[] parents = new int[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            parents[i] = i;
+        }
+        group(root, -1, parents);
+        final Component[] byOperation = new Component[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            final int representative = find(parents, i);
+            if (byOperation[representative] == null) {
+                byOperation[representative] = new Component();
+            }
+            final Component component = byOperation[representative];
+            byOperation[i] = component;
+            component.operations.add(i);
+            component.unresolved += refs[i].length;
+        }
+        return byOperation;
+    }
+
+    /**
+     * Unions the operations of a ref with the ones of the refs above it, and the operations of all refs below the items
+     * of an array with each other when one of them inserts or removes an item of that array.
+     *
+     * @param ancestor the operation of the nearest ref above node, -1 if none
+     */
+    private void group(final Node node, final int ancestor, final int[] parents) {
+        int nearest = ancestor;
+        for (final Ref ref : node.refs) {
+            if (nearest >= 0) {
+                union(parents, nearest, ref.operation);
+            }
+            nearest = ref.operation;
+        }
+        boolean shifted = false;
+        for (final Node child : node.children.values()) {
+            group(child, nearest, parents);
+            if (child.item) {
+                for (final Ref ref : child.refs) {
+                    shifted |= changesShape(ref);
+                }
+            }
+        }
+        if (shifted) {
+            final List<Ref> items = new ArrayList<>();
+            for (final Node child : node.children.values()) {
+                if (child.item) {
+                    child.collect(items);
+                }
+            }
+            for (final Ref ref : items) {
+                union(parents, items.get(0).operation, ref.operation);
+            }
+        }
+    }
+
+    private boolean changesShape(final Ref ref) {
+        switch (operations[ref.operation].operation) {
+            case REPLACE:
+            case TEST:
+                return false;
+            case COPY:
+                return ref == refs[ref.operation][0];
+            default:
+                return true;
+        }
+    }
+
+    private static void union(final int[] parents, final int i, final int j) {
+        final int a = find(parents, i);
+        final int b = find(parents, j);
+        parents[Math.max(a, b)] = Math.min(a, b);
+    }
+
+    private static int find(final int[] parents, final int i) {
+        int root = i;
+        while (parents[root] != root) {
+            // path halving keeps the chains short
+            parents[root] = parents[parents[root]];
+            root = parents[root];
+        }
+        return root;
+    }
+
+    void apply() {
+        stream(root, parser.next(), null, true);
+        flush();
+        if (!pending.isEmpty()) {
+            throw new JsonException("patch not fully applied");
+        }
+    }
+
+    /**
+     * @param key the member name, or the index of an array item
+     * @param member whether key is written with the value, false for array items and the root
+     */
+    private void stream(final Node node, final Event event, final String key, final boolean member) {
+        final String outputKey = member ? key : null;
+        if (!node.refs.isEmpty()) {
+            final JsonValue value = reader.readValue(event);
+            if (node.depth == 0) {
+                if (!(value instanceof JsonStructure)) {
+                    throw new JsonException("simple val not supported");
+                }
+                resolve(node, new Slot(new JsonWorkingTree((JsonStructure) value), 0, null), null);
+            } else {
+                // an array item is held under its index, operations which could shift it materialize the array
+                final JsonObject holder = Json.createObjectBuilder().add(key, value).build();
+                resolve(node, new Slot(new JsonWorkingTree(holder), node.depth - 1, key), outputKey);
+            }
+            return;
+        }
+
+        if (event == Event.START_OBJECT) {
+            startObject(outputKey);
+            final Set<String> seen = new HashSet<>();
+            while (parser.next() != Event.END_OBJECT) {
+                final String name = parser.getString();
+                final Node child = node.children.get(name);
+                if (child == null) {
+                    copy(name, parser.next());
+                } else {
+                    seen.add(name);
+                    stream(child, parser.next(), name, true);
+                }
+            }
+            for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+                if (seen.contains(child.getKey())) {
+                    continue;
+                }
+                if (child.getValue().refs.isEmpty()) {
+                    unreachable(child.getValue());
+                } else {
+                    // missing member an operation may add
+                    resolve(child.getValue(),
+                            new Slot(new JsonWorkingTree(JsonValue.EMPTY_JSON_OBJECT), node.depth, child.getKey()), child.getKey());
+                }
+            }
+            end();
+        } else if (event == Event.START_ARRAY) {
+            for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+                if (shiftsItems(child.getKey(), child.getValue())) {
+                    resolve(node, new Slot(new JsonWorkingTree((JsonStructure) reader.readValue(event)), node.depth, null),
+                            outputKey);
+                    return;
+                }
+            }
+            startArray(outputKey);
+            final Set<String> seen = new HashSet<>();
+            int index = 0;
+            Event next;
+            while ((next = parser.next()) != Event.END_ARRAY) {
+                final String token = Integer.toString(index++);
+                final Node child = node.children.get(token);
+                if (child == null) {
+                    copy(null, next);
+                } else {
+                    seen.add(token);
+                    stream(child, next, token, false);
+                }
+            }
+            for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+                if (!seen.contains(child.getKey())) {
+                    unreachable(child.getValue());
+                }
+            }
+            end();
+        } else {
+            copy(outputKey, event);
+            for (final Node child : node.children.values()) {
+                unreachable(child);
+            }
+        }
+    }
+
+    /**
+     * @return true if an operation ending on this array item inserts or removes items,
+     * only replacing, testing or copying from an item leaves the other items in place
+     */
+    private boolean shiftsItems(final String token, final Node item) {
+        for (final Ref ref : item.refs) {
+            if ("-".equals(token)) {
+                return true;
+            }
+            switch (operations[ref.operation].operation) {
+                case REPLACE:
+                case TEST:
+                    break;
+                case COPY:
+                    if (ref != refs[ref.operation][1]) {
+                        return true;
+                    }
+                    break;
+                default:
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Binds the pointers at or below node to slot and runs the components which got all their slots.
+     */
+    private void resolve(final Node node, final Slot slot, final String key) {
+        final List<Ref> subtree = new ArrayList<>();
+        node.collect(subtree);
+        final Set<Component> using = new HashSet<>();
+        for (final Ref ref : subtree) {
+            ref.slot = slot;
+            using.add(components[ref.operation]);
+        }
+        slot.waitingFor = using.size();
+        for (final Component component : using) {
+            component.slots.add(slot);
+        }
+        output(new Item(Item.SLOT, key, null, slot));
+        for (final Ref ref : subtree) {
+            resolved(components[ref.operation]);
+        }
+    }
+
+    private void unreachable(final Node node) {
+        final List<Ref> subtree = new ArrayList<>();
+        node.collect(subtree);
+        for (final Ref ref : subtree) {
+            ref.slot = UNREACHABLE;
+        }
+        for (final Ref ref : subtree) {
+            resolved(components[ref.operation]);
+        }
+    }
+
+    private void resolved(final Component component) {
+        if (--component.unresolved > 0) {
+            return;
+        }
+        final JsonPatchMetrics metrics = JsonMetrics.getPatchMetrics();
+        for (final int operation : component.operations) {
+            if (metrics == null) {
+                execute(operation);
+            } else {
+                measure(metrics, operation);
+            }
+        }
+        for (final Slot slot : component.slots) {
+            slot.waitingFor--;
+        }
+        flush();
+    }
+
+    private void measure(final JsonPatchMetrics metrics, final int index) {
+        final Ref[] operationRefs = refs[index];
+        final JsonWorkingTree[] trees = new JsonWorkingTree[operationRefs.length];
+        int nodesVisited = 0;
+        int subtreesCopied = 0;
+        for (int i = 0; i < operationRefs.length; i++) {
+            final Slot slot = operationRefs[i].slot;
+            if (slot != UNREACHABLE && (i == 0 || slot.tree != trees[0])) {
+                trees[i] = slot.tree;
+                nodesVisited -= slot.tree.nodesVisited;
+                subtreesCopied -= slot.tree.subtreesCopied;
+            }
+        }
+        final long start = System.nanoTime();
+        execute(index);
+        final long elapsed = System.nanoTime() - start;
+        for (final JsonWorkingTree tree : trees) {
+            if (tree != null) {
+                nodesVisited += tree.nodesVisited;
+                subtreesCopied += tree.subtreesCopied;
+            }
+        }
+        metrics.operationApplied(operations[index].operation, elapsed, nodesVisited, subtreesCopied);
+    }
+
+    private void execute(final int index) {
+        final JsonPatchOperation operation = operations[index];
+        final Ref path = refs[index][0];
+        switch (operation.operation) {
+            case ADD:
+                tree(path).add(path.relative(), operation.value);
+                break;
+            case REMOVE:
+                tree(path).remove(path.relative());
+                break;
+            case REPLACE:
+                tree(path).replace(path.relative(), operation.value);
+                break;
+            case TEST:
+                if (!tree(path).test(path.relative(), operation.value)) {
+                    throw new JsonException("values do not match");
+                }
+                break;
+            case MOVE:
+            case COPY: {
+                final Ref from = refs[index][1];
+                if (from.slot == path.slot) {
+                    if (operation.operation == JsonPatch.Operation.MOVE) {
+                        tree(path).move(from.relative(), path.relative());
+                    } else {
+                        tree(path).copy(from.relative(), path.relative());
+                    }
+                } else {
+                    final JsonValue value = tree(from).getValue(from.relative());
+                    if (operation.operation == JsonPatch.Operation.MOVE) {
+                        tree(from).remove(from.relative());
+                    }
+                    tree(path).add(path.relative(), value);
+                }
+                break;
+            }
+            default:
+                throw new JsonException("unknown op");
+        }
+    }
+
+    private static JsonWorkingTree tree(final Ref ref) {
+        if (ref.slot == UNREACHABLE) {
+            throw new JsonException("No such element '" + ref.pointer + "'");
+        }
+        return ref.slot.tree;
+    }
+
+    private void startObject(final String key) {
+        if (pending.isEmpty()) {
+            if (key == null) {
+                generator.writeStartObject();
+            } else {
+                generator.writeStartObject(key);
+            }
+        } else {
+            pending.add(new Item(Item.START_OBJECT, key, null, null));
+        }
+    }
+
+    private void startArray(final String key) {
+        if (pending.isEmpty()) {
+            if (key == null) {
+                generator.writeStartArray();
+            } else {
+                generator.writeStartArray(key);
+            }
+        } else {
+            pending.add(new Item(Item.START_ARRAY, key, null, null));
+        }
+    }
+
+    private void end() {
+        output(new Item(Item.END, null, null, null));
+    }
+
+    /**
+     * Copies the value event starts as is, materializing it only when output is buffered.
+     */
+    private void copy(final String key, final Event event) {
+        if (!pending.isEmpty()) {
+            pending.add(new Item(Item.VALUE, key, reader.readValue(event), null));
+            return;
+        }
+        switch (event) {
+            case START_OBJECT:
+                startObject(key);
+                while (parser.next() != Event.END_OBJECT) {
+                    final String name = parser.getString();
+                    copy(name, parser.next());
+                }
+                generator.writeEnd();
+                break;
+            case START_ARRAY:
+                startArray(key);
+                Event next;
+                while ((next = parser.next()) != Event.END_ARRAY) {
+                    copy(null, next);
+                }
+                generator.writeEnd();
+                break;
+            default:
+                write(key, reader.readValue(event));
+        }
+    }
+
+    private void output(final Item item) {
+        if (pending.isEmpty() && (item.kind != Item.SLOT || item.slot.waitingFor == 0)) {
+            write(item);
+        } else {
+            pending.add(item);
+        }
+    }
+
+    private void flush() {
+        while (!pending.isEmpty()) {
+            final Item head = pending.peek();
+            if (head.kind == Item.SLOT && head.slot.waitingFor > 0) {
+                return;
+            }
+            write(pending.poll());
+        }
+    }
+
+    private void write(final Item item) {
+        switch (item.kind) {
+            case Item.START_OBJECT:
+                if (item.key == null) {
+                    generator.writeStartObject();
+                } else {
+                    generator.writeStartObject(item.key);
+                }
+                break;
+            case Item.START_ARRAY:
+                if (item.key == null) {
+                    generator.writeStartArray();
+                } else {
+                    generator.writeStartArray(item.key);
+                }
+                break;
+            case Item.END:
+                generator.writeEnd();
+                break;
+            case Item.VALUE:
+                write(item.key, item.value);
+                break;
+            case Item.SLOT: {
+                final JsonStructure value = item.slot.tree.freeze();
+                if (item.slot.member == null) {
+                    write(item.key, value);
+                } else {
+                    final JsonValue memberValue = value.asJsonObject().get(item.slot.member);
+                    if (memberValue != null) {
+                        write(item.key, memberValue);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("unknown item " + item.kind);
+        }
+    }
+
+    private void write(final String key, final JsonValue value) {
+        if (key == null) {
+            generator.write(value);
+        } else {
+            generator.write(key, value);
+        }
+    }
+
+    private static final class Node {
+        private final int depth;
+        // whether the token of the node can address an array item
+        private final boolean item;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        // pointers ending here
+        private final List<Ref> refs = new ArrayList<>();
+
+        private Node(final int depth, final boolean item) {
+            this.depth = depth;
+            this.item = item;
+        }
+
+        private void insert(final Ref ref) {
+            Node node = this;
+            for (int i = 0; i < ref.pointer.depth(); i++) {
+                final int childDepth = node.depth + 1;
+                final boolean item = ref.pointer.index(i) != JsonPointer.NAME;
+                node = node.children.computeIfAbsent(ref.pointer.token(i), t -> new Node(childDepth, item));
+            }
+            node.refs.add(ref);
+        }
+
+        private void collect(final List<Ref> collected) {
+            collected.addAll(refs);
+            for (final Node child : children.values()) {
+                child.collect(collected);
+            }
+        }
+    }
+
+    private static final class Ref {
+        private final int operation;
+        private final JsonPointer pointer;
+        private Slot slot;
+
+        private Ref(final int operation, final JsonPointer pointer) {
+            this.operation = operation;
+            this.pointer = pointer;
+        }
+
+        /**
+         * @return the pointer relative to the root of the tree of its slot
+         */
+        private JsonPointer relative() {
+            final String value = pointer.toString();
+            int start = 0;
+            for (int i = 0; i < slot.depth; i++) {
+                start = value.indexOf('/', start + 1);
+            }
+            return new JsonPointer(slot.depth == 0 ? value : value.substring(start));
+        }
+    }
+
+    private static final class Slot {
+        private final JsonWorkingTree tree;
+        // depth in the document of the root of tree
+        private final int depth;
+        // for an object member the holder object only contains, else null
+        private final String member;
+        // components still to run before the slot can be written
+        private int waitingFor;
+
+        private Slot(final JsonWorkingTree tree, final int depth, final String member) {
+            this.tree = tree;
+            this.depth = depth;
+            this.member = member;
+        }
+    }
+
+    private static final class Component {
+        private final List<Integer> operations = new ArrayList<>();
+        private final List<Slot> slots = new ArrayList<>();
+        private int unresolved;
+    }
+
+    private static final class Item {
+        private static final int START_OBJECT = 0;
+        private static final int START_ARRAY = 1;
+        private static final int END = 2;
+        private static final int VALUE = 3;
+        private static final int SLOT = 4;
+
+        private final int kind;
+        private final String key;
+        private final JsonValue value;
+        private final Slot slot;
+
+        private Item(final int kind, final String key, final JsonValue value, final Slot slot) {
+            this.kind = kind;
+            this.key = key;
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Structural hashes of the values seen during one {@link JsonPatch#diff(JsonStructure, JsonStructure)}.
+ *
+ * The hash of a structure is computed once, bottom-up from the hashes of its children, and kept per instance so
+ * unequal subtrees are told apart in O(1); values are only compared deeply when their hashes collide.
+ * A table created with a parent reads through to it, the parent must not be modified while its children are used.
+ */
+final class JsonStructuralHashes {
+    private final JsonStructuralHashes parent;
+    private final Map<JsonValue, Entry> entries = new IdentityHashMap<>();
+
+    JsonStructuralHashes() {
+        this(null);
+    }
+
+    JsonStructuralHashes(final JsonStructuralHashes parent) {
+        this.parent = parent;
+    }
+
+    int hash(final JsonValue value) {
+        if (!(value instanceof JsonStructure)) {
+            return value.hashCode();
+        }
+        return entry(value).hash;
+    }
+
+    /**
+     * @return the number of values in the given tree, itself included
+     */
+    int size(final JsonValue value) {
+        if (!(value instanceof JsonStructure)) {
+            return 1;
+        }
+        return entry(value).size;
+    }
+
+    private Entry entry(final JsonValue value) {
+        for (JsonStructuralHashes table = this; table != null; table = table.parent) {
+            final Entry cached = table.entries.get(value);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        int hash;
+        int size = 1;
+        if (value instanceof JsonObject) {
+            // members are unordered, as in JsonObject#equals
+            hash = 0;
+            for (final Map.Entry<String, JsonValue> member : value.asJsonObject().entrySet()) {
+                hash += member.getKey().hashCode() ^ hash(member.getValue());
+                size += size(member.getValue());
+            }
+        } else {
+            hash = 1;
+            for (final JsonValue item : value.asJsonArray()) {
+                hash = 31 * hash + hash(item);
+                size += size(item);
+            }
+        }
+        final Entry entry = new Entry(hash, size);
+        entries.put(value, entry);
+        return entry;
+    }
+
+    boolean equal(final JsonValue a, final JsonValue b) {
+        return a == b || (hash(a) == hash(b) && a.equals(b));
+    }
+
+    /**
+     * @return a key usable in hash based collections which relies on the memoized hash
+     */
+    Key key(final JsonValue value) {
+        return new Key(value);
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final int size;
+
+        private Entry(final int hash, final int size) {
+            this.hash = hash;
+            this.size = size;
+        }
+    }
+
+    final class Key {
+        private final JsonValue value;
+        private final int hash;
+
+        private Key(final JsonValue value) {
+            this.value = value;
+            this.hash = hash(value);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hash == other.hash && (value == other.value || value.equals(other.value));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
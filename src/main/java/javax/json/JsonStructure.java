@@ -23,7 +23,7 @@ public interface JsonStructure extends JsonValue {
      * @since 1.1
      */
 	default public JsonValue getValue(String jsonPointer) {
-        return new JsonPointer(jsonPointer).getValue(this);
+        return JsonPointer.compile(jsonPointer).getValue(this);
     }
 
 }
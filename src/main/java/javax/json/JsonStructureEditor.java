@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.Objects;
+
+/**
+ * Applies many pointer mutations to a structure and rebuilds it once.
+ * Mutations are applied in call order, as with a sequence of {@link JsonPointer} calls,
+ * but on a mutable working copy of the containers they touch, so ancestors shared by several mutations
+ * are copied once and every untouched value is reused by reference in the result.
+ * Created through {@link JsonPointer#edit(JsonStructure)}, an editor is not thread safe.
+ */
+public final class JsonStructureEditor {
+
+    private final JsonWorkingTree tree;
+
+    JsonStructureEditor(final JsonStructure target) {
+        tree = new JsonWorkingTree(Objects.requireNonNull(target));
+    }
+
+    public JsonStructureEditor add(final String pointer, final JsonValue value) {
+        return add(JsonPointer.compile(pointer), value);
+    }
+
+    public JsonStructureEditor add(final JsonPointer pointer, final JsonValue value) {
+        tree.add(pointer, Objects.requireNonNull(value));
+        return this;
+    }
+
+    public JsonStructureEditor replace(final String pointer, final JsonValue value) {
+        return replace(JsonPointer.compile(pointer), value);
+    }
+
+    public JsonStructureEditor replace(final JsonPointer pointer, final JsonValue value) {
+        tree.replace(pointer, Objects.requireNonNull(value));
+        return this;
+    }
+
+    public JsonStructureEditor remove(final String pointer) {
+        return remove(JsonPointer.compile(pointer));
+    }
+
+    public JsonStructureEditor remove(final JsonPointer pointer) {
+        tree.remove(pointer);
+        return this;
+    }
+
+    public JsonStructureEditor move(final String path, final String from) {
+        tree.move(JsonPointer.compile(from), JsonPointer.compile(path));
+        return this;
+    }
+
+    public JsonStructureEditor copy(final String path, final String from) {
+        tree.copy(JsonPointer.compile(from), JsonPointer.compile(path));
+        return this;
+    }
+
+    /**
+     * @return the value currently referenced by the pointer, including previous mutations
+     */
+    public JsonValue getValue(final String pointer) {
+        return tree.getValue(JsonPointer.compile(pointer));
+    }
+
+    /**
+     * @return the edited structure, the editor can be used further and built again
+     */
+    public JsonStructure build() {
+        return tree.freeze();
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable overlay over an immutable structure, used to apply many pointer mutations with a single rebuild.
+ * Containers on the path of a mutation are thawed into mutable nodes once,
+ * all untouched values stay the original immutable instances and are reused by reference when freezing.
+ */
+final class JsonWorkingTree {
+
+    // JsonValue or a thawed ObjectNode/ArrayNode
+    private Object root;
+
+    // cumulated work, read by JsonPatchMetrics instrumentation
+    int nodesVisited;
+    int subtreesCopied;
+
+    JsonWorkingTree(final JsonStructure target) {
+        root = target;
+    }
+
+    private static final class ObjectNode {
+        private final Map<String, Object> members;
+
+        private ObjectNode(final JsonObject object) {
+            members = new LinkedHashMap<String, Object>(object);
+        }
+    }
+
+    private static final class ArrayNode {
+        private final List<Object> items;
+
+        private ArrayNode(final JsonArray array) {
+            items = new ArrayList<Object>(array);
+        }
+    }
+
+    void add(final JsonPointer pointer, final JsonValue value) {
+        add0(pointer, value);
+    }
+
+    void replace(final JsonPointer pointer, final JsonValue value) {
+        if (pointer.depth() == 0) {
+            root = checkRoot(value);
+            return;
+        }
+        final Object parent = thawParent(pointer);
+        final int last = pointer.depth() - 1;
+        final String token = pointer.token(last);
+        if (parent instanceof ObjectNode) {
+            final Map<String, Object> members = ObjectNode.class.cast(parent).members;
+            if (!members.containsKey(token)) {
+                throw new JsonException("node does not exist");
+            }
+            members.put(token, value);
+        } else {
+            final List<Object> items = ArrayNode.class.cast(parent).items;
+            items.set(existingIndex(items, token, pointer.index(last)), value);
+        }
+    }
+
+    void remove(final JsonPointer pointer) {
+        remove0(pointer);
+    }
+
+    void move(final JsonPointer from, final JsonPointer path) {
+        if (from.equals(path)) {
+            return;
+        }
+        if (isProperPrefix(from, path)) {
+            throw new JsonException("Cannot move '" + from + "' into its own child '" + path + "'");
+        }
+        // the node is moved as is, a thawed subtree doesn't need to be frozen
+        add0(path, remove0(from));
+    }
+
+    void copy(final JsonPointer from, final JsonPointer path) {
+        final Object value = get0(from);
+        if (value == null) {
+            throw new JsonException("No such element");
+        }
+        if (value instanceof ObjectNode || value instanceof ArrayNode) {
+            subtreesCopied++;
+        }
+        add0(path, freeze(value));
+    }
+
+    boolean test(final JsonPointer pointer, final JsonValue value) {
+        final Object current = get0(pointer);
+        if (current == null) {
+            throw new JsonException("No such element");
+        }
+        return equal(current, value);
+    }
+
+    JsonValue getValue(final JsonPointer pointer) {
+        final Object value = get0(pointer);
+        if (value == null) {
+            throw new JsonException("No such element");
+        }
+        return freeze(value);
+    }
+
+    JsonStructure freeze() {
+        return JsonStructure.class.cast(freeze(root));
+    }
+
+    private void add0(final JsonPointer pointer, final Object value) {
+        if (pointer.depth() == 0) {
+            root = checkRoot(value);
+            return;
+        }
+        final Object parent = thawParent(pointer);
+        final int last = pointer.depth() - 1;
+        final String token = pointer.token(last);
+        if (parent instanceof ObjectNode) {
+            ObjectNode.class.cast(parent).members.put(token, value);
+        } else {
+            final List<Object> items = ArrayNode.class.cast(parent).items;
+            final int index = pointer.index(last);
+            if (index == JsonPointer.NAME) {
+                throw new JsonException("Cannot parse '" + token + "' to an unsigned integer");
+            }
+            if (index > items.size()) {
+                throw new JsonException("No such element (" + index + " is out of bounds (" + items.size() + "))");
+            }
+            items.add(index == JsonPointer.DASH ? items.size() : index, value);
+        }
+    }
+
+    private Object remove0(final JsonPointer pointer) {
+        if (pointer.depth() == 0) {
+            final Object removed = root;
+            root = root instanceof JsonObject || root instanceof ObjectNode
+                    ? JsonValue.EMPTY_JSON_OBJECT : JsonValue.EMPTY_JSON_ARRAY;
+            return removed;
+        }
+        final Object parent = thawParent(pointer);
+        final int last = pointer.depth() - 1;
+        final String token = pointer.token(last);
+        if (parent instanceof ObjectNode) {
+            final Map<String, Object> members = ObjectNode.class.cast(parent).members;
+            if (!members.containsKey(token)) {
+                throw new JsonException("node does not exist");
+            }
+            return members.remove(token);
+        }
+        final List<Object> items = ArrayNode.class.cast(parent).items;
+        return items.remove(existingIndex(items, token, pointer.index(last)));
+    }
+
+    private Object get0(final JsonPointer pointer) {
+        Object current = root;
+        for (int i = 0; i < pointer.depth(); i++) {
+            nodesVisited++;
+            current = child(current, pointer.token(i), pointer.index(i));
+            if (current == null) {
+                if (i != pointer.depth() - 1) {
+                    throw new JsonException("end reached");
+                }
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static Object child(final Object parent, final String token, final int index) {
+        if (parent instanceof ObjectNode) {
+            return ObjectNode.class.cast(parent).members.get(token);
+        }
+        if (parent instanceof ArrayNode) {
+            final List<Object> items = ArrayNode.class.cast(parent).items;
+            if (index == JsonPointer.NAME) {
+                throw new JsonException("Cannot parse '" + token + "' to an unsigned integer");
+            }
+            if (index == JsonPointer.DASH || index == items.size()) {
+                return null;
+            }
+            if (index > items.size()) {
+                throw new JsonException("No such element (" + index + " is out of bounds (" + items.size() + "))");
+            }
+            return items.get(index);
+        }
+        return JsonPointer.step(JsonValue.class.cast(parent), token, index);
+    }
+
+    /**
+     * Thaws all containers down to the parent of the last token.
+     */
+    private Object thawParent(final JsonPointer pointer) {
+        root = thaw(root, pointer.token(0));
+        Object current = root;
+        for (int i = 0; i < pointer.depth() - 1; i++) {
+            final String token = pointer.token(i);
+            final int index = pointer.index(i);
+            nodesVisited++;
+            final Object child = child(current, token, index);
+            if (child == null) {
+                throw new JsonException("end reached");
+            }
+            final Object thawed = thaw(child, pointer.token(i + 1));
+            if (thawed != child) {
+                if (current instanceof ObjectNode) {
+                    ObjectNode.class.cast(current).members.put(token, thawed);
+                } else {
+                    ArrayNode.class.cast(current).items.set(index, thawed);
+                }
+            }
+            current = thawed;
+        }
+        return current;
+    }
+
+    private Object thaw(final Object value, final String nextToken) {
+        if (value instanceof JsonObject) {
+            subtreesCopied++;
+            return new ObjectNode(JsonObject.class.cast(value));
+        }
+        if (value instanceof JsonArray) {
+            subtreesCopied++;
+            return new ArrayNode(JsonArray.class.cast(value));
+        }
+        if (value instanceof ObjectNode || value instanceof ArrayNode) {
+            return value;
+        }
+        throw new JsonException("No such element, '" + nextToken + "' can't be applied to a "
+                + JsonValue.class.cast(value).getValueType());
+    }
+
+    private static int existingIndex(final List<Object> items, final String token, final int index) {
+        if (index == JsonPointer.NAME) {
+            throw new JsonException("Cannot parse '" + token + "' to an unsigned integer");
+        }
+        if (index == JsonPointer.DASH || index >= items.size()) {
+            throw new JsonException("node does not exist");
+        }
+        return index;
+    }
+
+    private static Object checkRoot(final Object value) {
+        if (value instanceof JsonStructure || value instanceof ObjectNode || value instanceof ArrayNode) {
+            return value;
+        }
+        throw new JsonException("simple val not supported");
+    }
+
+    private static boolean isProperPrefix(final JsonPointer prefix, final JsonPointer pointer) {
+        if (prefix.depth() >= pointer.depth()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.depth(); i++) {
+            if (!prefix.token(i).equals(pointer.token(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static JsonValue freeze(final Object value) {
+        if (value instanceof ObjectNode) {
+            final JsonObjectBuilder builder = Json.createObjectBuilder();
+            for (final Map.Entry<String, Object> member : ObjectNode.class.cast(value).members.entrySet()) {
+                builder.add(member.getKey(), freeze(member.getValue()));
+            }
+            return builder.build();
+        }
+        if (value instanceof ArrayNode) {
+            final JsonArrayBuilder builder = Json.createArrayBuilder();
+            for (final Object item : ArrayNode.class.cast(value).items) {
+                builder.add(freeze(item));
+            }
+            return builder.build();
+        }
+        return JsonValue.class.cast(value);
+    }
+
+    private static boolean equal(final Object current, final JsonValue value) {
+        if (current instanceof ObjectNode) {
+            if (!(value instanceof JsonObject)) {
+                return false;
+            }
+            final Map<String, Object> members = ObjectNode.class.cast(current).members;
+            final JsonObject object = JsonObject.class.cast(value);
+            if (members.size() != object.size()) {
+                return false;
+            }
+            for (final Map.Entry<String, Object> member : members.entrySet()) {
+                final JsonValue other = object.get(member.getKey());
+                if (other == null || !equal(member.getValue(), other)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (current instanceof ArrayNode) {
+            if (!(value instanceof JsonArray)) {
+                return false;
+            }
+            final List<Object> items = ArrayNode.class.cast(current).items;
+            final JsonArray array = JsonArray.class.cast(value);
+            if (items.size() != array.size()) {
+                return false;
+            }
+            final Iterator<JsonValue> it = array.iterator();
+            for (final Object item : items) {
+                if (!equal(item, it.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return current.equals(value);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json.spi;
+
+/**
+ * Holds the optional {@link JsonPatchMetrics}, without metrics measuring costs a single volatile read per patch
+ * application or diff.
+ *
+ * Geronimo extension, JSR 374 defines no metrics hook.
+ */
+public final class JsonMetrics {
+    private static volatile JsonPatchMetrics patchMetrics;
+
+    private JsonMetrics() {
+        // no-op
+    }
+
+    /**
+     * @param metrics the metrics to feed, null disables patch metrics
+     */
+    public static void setPatchMetrics(final JsonPatchMetrics metrics) {
+        patchMetrics = metrics;
+    }
+
+    /**
+     * @return the current patch metrics or null if they are disabled
+     */
+    public static JsonPatchMetrics getPatchMetrics() {
+        return patchMetrics;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json.spi;
+
+import javax.json.JsonPatch;
+
+/**
+ * Receives measurements of {@link JsonPatch} application and diff.
+ * Register it with {@link JsonMetrics#setPatchMetrics(JsonPatchMetrics)}, it is called synchronously on the evaluating
+ * thread so implementations must be fast and thread safe.
+ *
+ * Not part of JSR 374.
+ */
+public interface JsonPatchMetrics {
+
+    /**
+     * @param operation      the applied operation
+     * @param elapsedNanos   the time the operation took
+     * @param nodesVisited   the pointer tokens walked to reach the locations of the operation
+     * @param subtreesCopied the containers copied to be modified, or copied by a copy operation
+     */
+    void operationApplied(JsonPatch.Operation operation, long elapsedNanos, int nodesVisited, int subtreesCopied);
+
+    /**
+     * @param sourceNodes    the values of the source document, -1 if unknown (streaming diff)
+     * @param targetNodes    the values of the target document, -1 if unknown (streaming diff)
+     * @param operationCount the operations of the resulting patch
+     * @param elapsedNanos   the time the diff took
+     */
+    void diffComputed(int sourceNodes, int targetNodes, int operationCount, long elapsedNanos);
+}
@@ -40,6 +40,9 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -47,15 +50,26 @@ import java.net.URL;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.WeakHashMap;
 
 public abstract class JsonProvider {
     private static final String DEFAULT_PROVIDER = "org.apache.johnzon.core.JsonProviderImpl";
 
+    // keys are weak and values soft: the provider class usually lives in the key loader so the provider keeps it
+    // reachable until the soft reference is cleared under memory pressure,
+    // containers should call invalidateProviderCache(loader) on undeploy to release it right away
+    private static final Map<ClassLoader, Reference<JsonProvider>> PROVIDERS =
+            Collections.synchronizedMap(new WeakHashMap<ClassLoader, Reference<JsonProvider>>());
+
+    // last resolved loader/provider pair, avoids the synchronized map for the common single loader case
+    private static volatile CachedProvider lastProvider;
+
     protected JsonProvider() {
         // no-op
     }
@@ -64,15 +78,77 @@ public abstract class JsonProvider {
         if (System.getSecurityManager() != null) {
             return AccessController.doPrivileged(new PrivilegedAction<JsonProvider>() {
                 public JsonProvider run() {
-                    return doLoadProvider();
+                    return cachedProvider();
                 }
             });
         }
-        return doLoadProvider();
+        return cachedProvider();
+    }
+
+    /**
+     * Drops the cached provider of the given class loader, the next {@link #provider()} call
+     * from that loader will look the provider up again.
+     * Intended for redeployments and OSGi bundle changes: until it is called the cached provider keeps its
+     * class loader reachable, only memory pressure releases it otherwise.
+     *
+     * @param loader the thread context class loader the provider was resolved with, may be null
+     */
+    public static void invalidateProviderCache(final ClassLoader loader) {
+        PROVIDERS.remove(loader);
+        final CachedProvider last = lastProvider;
+        if (last != null && last.matches(loader)) {
+            lastProvider = null;
+        }
     }
 
-    private static JsonProvider doLoadProvider() throws JsonException {
+    /**
+     * Drops all cached providers.
+     */
+    public static void invalidateProviderCache() {
+        PROVIDERS.clear();
+        lastProvider = null;
+    }
+
+    private static JsonProvider cachedProvider() {
         final ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+
+        final CachedProvider last = lastProvider;
+        if (last != null && last.matches(tccl)) {
+            final JsonProvider provider = last.provider.get();
+            if (provider != null) {
+                return provider;
+            }
+        }
+
+        final Reference<JsonProvider> ref = PROVIDERS.get(tccl);
+        JsonProvider provider = ref == null ? null : ref.get();
+        if (provider == null) {
+            // concurrent lookups may both load a provider, the last one wins which is harmless
+            provider = doLoadProvider(tccl);
+            PROVIDERS.put(tccl, new SoftReference<JsonProvider>(provider));
+        }
+        lastProvider = new CachedProvider(tccl, provider);
+        return provider;
+    }
+
+    private static final class CachedProvider {
+        private final WeakReference<ClassLoader> loader;
+        private final boolean nullLoader;
+        private final SoftReference<JsonProvider> provider;
+
+        private CachedProvider(final ClassLoader loader, final JsonProvider provider) {
+            this.loader = new WeakReference<ClassLoader>(loader);
+            this.nullLoader = loader == null;
+            this.provider = new SoftReference<JsonProvider>(provider);
+        }
+
+        private boolean matches(final ClassLoader tccl) {
+            // a collected loader must not be mistaken for the null (system) loader
+            return tccl == null ? nullLoader : loader.get() == tccl;
+        }
+    }
+
+    private static JsonProvider doLoadProvider(final ClassLoader tccl) throws JsonException {
         try {
             final Class<?> clazz = Class.forName("org.apache.geronimo.osgi.locator.ProviderLocator");
             final Method getServices = clazz.getDeclaredMethod("getServices", String.class, Class.class, ClassLoader.class);
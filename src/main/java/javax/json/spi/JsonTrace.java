@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json.spi;
+
+/**
+ * Holds the optional {@link JsonTraceListener}, without a listener tracing costs a single volatile read.
+ *
+ * Geronimo extension, JSR 374 defines no tracing hook.
+ */
+public final class JsonTrace {
+    private static volatile JsonTraceListener listener;
+
+    private JsonTrace() {
+        // no-op
+    }
+
+    /**
+     * @param traceListener the listener to notify, null disables tracing
+     */
+    public static void setListener(final JsonTraceListener traceListener) {
+        listener = traceListener;
+    }
+
+    /**
+     * @return the current listener or null if tracing is disabled
+     */
+    public static JsonTraceListener getListener() {
+        return listener;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json.spi;
+
+/**
+ * Receives an event per traced pointer, patch or merge patch evaluation.
+ * Register it with {@link JsonTrace#setListener(JsonTraceListener)}.
+ * Called synchronously on the evaluating thread so implementations must be fast and thread safe.
+ *
+ * Not part of JSR 374.
+ */
+public interface JsonTraceListener {
+
+    /**
+     * @param operation    the evaluated operation
+     * @param pointer      the JSON pointer the operation was evaluated for, null if it has none
+     * @param nodeCount    the nodes handled: pointer tokens walked, patch operations applied or emitted,
+     *                     top level merge patch members
+     * @param elapsedNanos the evaluation time
+     */
+    void trace(Operation operation, String pointer, int nodeCount, long elapsedNanos);
+
+    enum Operation {
+        POINTER_GET, POINTER_ADD, POINTER_REPLACE, POINTER_REMOVE,
+        PATCH_APPLY, PATCH_DIFF,
+        MERGE_PATCH
+    }
+}
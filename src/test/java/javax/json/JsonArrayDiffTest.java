@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class JsonArrayDiffTest {
+    @Test
+    public void unchanged() {
+        assertEquals(0, diff("[1,2,3]", "[1,2,3]").size());
+    }
+
+    @Test
+    public void insertion() {
+        assertEquals(read("[{\"op\":\"add\",\"path\":\"/1\",\"value\":4}]"), diff("[1,2,3]", "[1,4,2,3]"));
+    }
+
+    @Test
+    public void removal() {
+        assertEquals(read("[{\"op\":\"remove\",\"path\":\"/1\"}]"), diff("[1,2,3]", "[1,3]"));
+    }
+
+    @Test
+    public void move() {
+        assertEquals(1, roundTrip("[1,2,3]", "[3,1,2]").size());
+        assertEquals(1, roundTrip("[1,2,3,4,5]", "[2,3,4,5,1]").size());
+    }
+
+    @Test
+    public void moveOperations() {
+        assertEquals(read("[{\"op\":\"move\",\"path\":\"/0\",\"from\":\"/2\"}]"), diff("[1,2,3]", "[3,1,2]"));
+        assertEquals(read("[{\"op\":\"move\",\"path\":\"/4\",\"from\":\"/0\"}]"), diff("[1,2,3,4,5]", "[2,3,4,5,1]"));
+        assertEquals(read("[{\"op\":\"move\",\"path\":\"/1\",\"from\":\"/0\"}]"), diff("[{\"a\":1},2]", "[2,{\"a\":1}]"));
+        // equal items are interchangeable
+        assertEquals(read("[{\"op\":\"move\",\"path\":\"/0\",\"from\":\"/2\"}]"), diff("[1,1,2]", "[2,1,1]"));
+    }
+
+    @Test
+    public void replacedScalar() {
+        assertEquals(read("[{\"op\":\"replace\",\"path\":\"/1\",\"value\":\"x\"}]"), diff("[1,2,3]", "[1,\"x\",3]"));
+    }
+
+    @Test
+    public void nestedArraysAreDiffedAtTheirPath() {
+        assertEquals(read("[{\"op\":\"add\",\"path\":\"/0/2\",\"value\":4}]"), diff("[[1,2],[3]]", "[[1,2,4],[3]]"));
+    }
+
+    @Test
+    public void replacedItemsAreDiffed() {
+        assertEquals(read("[{\"op\":\"replace\",\"path\":\"/0/a\",\"value\":2},{\"op\":\"add\",\"path\":\"/2\",\"value\":3}]"),
+                diff("[{\"a\":1},{\"b\":2}]", "[{\"a\":2},{\"b\":2},3]"));
+    }
+
+    @Test
+    public void mixedEdits() {
+        roundTrip("[1,2,3,4,5,6,7,8,9]", "[9,2,\"x\",4,6,5,7,1]");
+        roundTrip("[1,1,2,2,3,3]", "[3,2,1,3,2,1]");
+        roundTrip("[1,2,3,4,5,6]", "[6,5,4,3,2,1]");
+        roundTrip("[]", "[1,2]");
+        roundTrip("[1,2]", "[]");
+        roundTrip("[[1,2],{\"a\":[3]},4]", "[4,{\"a\":[3,5]},[2,1]]");
+    }
+
+    @Test(timeout = 5000)
+    public void editsAtBothEndsOfALargeArrayStayLinear() {
+        final int size = 200000;
+        final JsonArrayBuilder source = Json.createArrayBuilder();
+        final JsonArrayBuilder target = Json.createArrayBuilder().add("head");
+        for (int i = 0; i < size; i++) {
+            source.add(i);
+            target.add(i);
+        }
+        final JsonArray patch = roundTrip(source.build(), target.add("tail").build());
+        assertEquals(2, patch.size());
+    }
+
+    private static JsonArray diff(final String source, final String target) {
+        return JsonPatch.diff(read(source), read(target));
+    }
+
+    private static JsonArray roundTrip(final String source, final String target) {
+        return roundTrip(read(source), read(target));
+    }
+
+    private static JsonArray roundTrip(final JsonStructure source, final JsonStructure target) {
+        final JsonArray patch = JsonPatch.diff(source, target);
+        assertEquals(target, new JsonPatch(patch).apply(source));
+        return patch;
+    }
+}
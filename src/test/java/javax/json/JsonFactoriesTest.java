@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParserFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonFactoriesTest {
+    @Before
+    @After
+    public void freshProvider() {
+        // each test gets its own provider, so its own factories
+        JsonProvider.invalidateProviderCache();
+    }
+
+    @Test
+    public void equalConfigurationsShareAFactory() {
+        final Map<String, Object> config = new HashMap<>();
+        config.put("a", "1");
+        final JsonParserFactory shared = Json.getSharedParserFactory(config);
+        assertSame(shared, Json.getSharedParserFactory(Collections.singletonMap("a", "1")));
+        assertNotSame(shared, Json.getSharedParserFactory(Collections.singletonMap("a", "2")));
+        assertNotSame(shared, Json.createParserFactory(config));
+
+        // the caller map is copied, changing it later doesn't change what the factory is shared under
+        config.put("a", "2");
+        assertSame(shared, Json.getSharedParserFactory(Collections.singletonMap("a", "1")));
+
+        assertSame(Json.getSharedReaderFactory(null), Json.getSharedReaderFactory(Collections.<String, Object>emptyMap()));
+        assertSame(Json.getSharedBuilderFactory(config), Json.getSharedBuilderFactory(new HashMap<>(config)));
+    }
+
+    @Test
+    public void sharedConfigurationsAreBounded() {
+        for (int i = 0; i < JsonFactories.MAX_SHARED; i++) {
+            final Map<String, ?> config = Collections.singletonMap("i", i);
+            assertSame(Json.getSharedWriterFactory(config), Json.getSharedWriterFactory(config));
+        }
+        final Map<String, ?> config = Collections.singletonMap("i", -1);
+        assertNotSame(Json.getSharedWriterFactory(config), Json.getSharedWriterFactory(config));
+        // the ones already shared stay
+        assertSame(Json.getSharedWriterFactory(Collections.singletonMap("i", 0)),
+                Json.getSharedWriterFactory(Collections.singletonMap("i", 0)));
+    }
+
+    @Test
+    public void factoriesFollowTheProvider() {
+        final Map<String, ?> config = Collections.singletonMap("a", "1");
+        final JsonGeneratorFactory shared = Json.getSharedGeneratorFactory(config);
+        assertSame(shared, Json.getSharedGeneratorFactory(config));
+
+        JsonProvider.invalidateProviderCache();
+        assertNotSame(shared, Json.getSharedGeneratorFactory(config));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class JsonParallelDiffTest {
+    // items of 3 values, large enough for a member to be above the threshold
+    private static final int ITEMS = JsonParallelDiff.THRESHOLD / 4;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void sameOperationsInTheSameOrder() {
+        final JsonObject source = Json.createObjectBuilder()
+                .add("m0", items(0, ITEMS))
+                .add("small", Json.createValue(1))
+                .add("m1", items(0, ITEMS))
+                .add("m2", items(0, ITEMS))
+                .add("m3", items(0, ITEMS))
+                .build();
+        final JsonObject target = Json.createObjectBuilder()
+                .add("m0", Json.createArrayBuilder(items(0, ITEMS)).set(10, item(10, 7)))
+                .add("small", Json.createValue(2))
+                .add("m1", Json.createArrayBuilder(items(1, ITEMS)).add(item(ITEMS, 0)))
+                .add("m2", Json.createArrayBuilder(items(0, ITEMS)).remove(5).add(0, item(5, 5)))
+                .add("m3", items(0, ITEMS))
+                .build();
+
+        final JsonArray patch = JsonPatch.diff(source, target, pool);
+        assertEquals(JsonPatch.diff(source, target), patch);
+        // scalar members first, then the nested diffs in member order whichever task completes first
+        assertEquals(read("[{\"op\":\"replace\",\"path\":\"/small\",\"value\":2},"
+                + "{\"op\":\"replace\",\"path\":\"/m0/10/v\",\"value\":7},"
+                + "{\"op\":\"remove\",\"path\":\"/m1/0\"},"
+                + "{\"op\":\"add\",\"path\":\"/m1/" + (ITEMS - 1) + "\",\"value\":{\"id\":" + ITEMS + ",\"v\":0}},"
+                + "{\"op\":\"move\",\"path\":\"/m2/0\",\"from\":\"/m2/5\"}]"), patch);
+        assertEquals(target, new JsonPatch(patch).apply(source));
+    }
+
+    @Test
+    public void nestedLargeValuesAreForkedAgain() {
+        final JsonArray source = Json.createArrayBuilder()
+                .add(Json.createObjectBuilder().add("a", items(0, ITEMS)).add("b", items(0, ITEMS)))
+                .add(Json.createObjectBuilder().add("a", items(0, ITEMS)).add("b", items(0, ITEMS)))
+                .build();
+        final JsonArray target = Json.createArrayBuilder()
+                .add(Json.createObjectBuilder().add("a", items(0, ITEMS)).add("b", items(1, ITEMS)))
+                .add(Json.createObjectBuilder().add("a", items(2, ITEMS)).add("b", items(0, ITEMS)))
+                .build();
+
+        final JsonArray patch = JsonPatch.diff(source, target, pool);
+        assertEquals(JsonPatch.diff(source, target), patch);
+        assertEquals(read("[{\"op\":\"remove\",\"path\":\"/0/b/0\"},"
+                + "{\"op\":\"remove\",\"path\":\"/1/a/1\"},{\"op\":\"remove\",\"path\":\"/1/a/0\"}]"), patch);
+    }
+
+    @Test
+    public void smallDocuments() {
+        final JsonArray patch = JsonPatch.diff(read("{\"a\":[1,2],\"b\":1}"), read("{\"a\":[2],\"b\":2}"), pool);
+        assertEquals(read("[{\"op\":\"remove\",\"path\":\"/a/0\"},{\"op\":\"replace\",\"path\":\"/b\",\"value\":2}]"),
+                patch);
+        assertTrue(JsonPatch.diff(JsonValue.EMPTY_JSON_ARRAY, JsonValue.EMPTY_JSON_ARRAY, pool).isEmpty());
+    }
+
+    private static JsonArray items(final int from, final int to) {
+        final JsonArrayBuilder items = Json.createArrayBuilder();
+        for (int i = from; i < to; i++) {
+            items.add(item(i, i % 7));
+        }
+        return items.build();
+    }
+
+    private static JsonObject item(final int id, final int value) {
+        return Json.createObjectBuilder().add("id", id).add("v", value).build();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+public class JsonPatchBuilderTest {
+    @Test
+    public void typedValues() {
+        final JsonObject target = new JsonPatchBuilder()
+                .add("/a", 1L)
+                .add("/b", 1.5)
+                .add("/c", new BigDecimal("2.50"))
+                .addNull("/d")
+                .add("/e", "s")
+                .replace("/a", 2L)
+                .test("/d", JsonValue.NULL)
+                .testNull("/d")
+                .apply(JsonValue.EMPTY_JSON_OBJECT);
+        assertEquals(read("{\"a\":2,\"b\":1.5,\"c\":2.50,\"d\":null,\"e\":\"s\"}"), target);
+    }
+
+    @Test
+    public void buildMatchesApply() {
+        final JsonPatchBuilder builder = new JsonPatchBuilder().add("/a", 1).copy("/b", "/a").move("/c", "/a").remove("/b");
+        final JsonObject source = JsonValue.EMPTY_JSON_OBJECT;
+        assertEquals(new JsonPatch(builder.build()).apply(source), builder.apply(source));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullValue() {
+        new JsonPatchBuilder().add("/a", (JsonValue) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullPath() {
+        new JsonPatchBuilder().remove(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullFrom() {
+        new JsonPatchBuilder().move("/a", null);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class JsonPatchCodecTest {
+    @Test
+    public void everyOperation() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .add("/a/b/0", 1)
+                .remove("/a/b/1")
+                .replace("/a/c", "x")
+                .move("/a/d", "/a/b/0")
+                .copy("/e", "/a")
+                .test("/e/c", "x")
+                .build());
+        final JsonPatch decoded = JsonPatch.fromBinary(patch.toBinary());
+        assertEquals(patch, decoded);
+        assertEquals(patch.toString(), decoded.toString());
+
+        final JsonStructure document = read("{\"a\":{\"b\":[0,1,2],\"c\":null}}");
+        assertEquals(patch.apply(document), decoded.apply(document));
+    }
+
+    @Test
+    public void emptyPatch() {
+        final JsonPatch patch = new JsonPatch(JsonValue.EMPTY_JSON_ARRAY);
+        assertEquals(patch, JsonPatch.fromBinary(patch.toBinary()));
+    }
+
+    @Test
+    public void streams() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().add("/a", 1).move("/b", "/a").build());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        patch.toBinary(out);
+        assertArrayEquals(patch.toBinary(), out.toByteArray());
+        assertEquals(patch, JsonPatch.fromBinary(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void values() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .add("/a", Long.MIN_VALUE)
+                .add("/b", new BigDecimal("-1.5E+300"))
+                .add("/c", "\u00e9\u4e2d")
+                .add("/d", read("[null,true,false,{\"x\":[]},-1]"))
+                .add("/~0e~1/0/", 1)
+                .build());
+        assertEquals(patch, JsonPatch.fromBinary(patch.toBinary()));
+    }
+
+    @Test
+    public void pointersShareTheirPrefixes() {
+        final JsonPatchBuilder builder = new JsonPatchBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.replace("/documents/items/" + i + "/name", i);
+        }
+        final JsonPatch patch = new JsonPatch(builder.build());
+        assertTrue(patch.toBinary().length * 4 < patch.toString().length());
+    }
+
+    @Test(expected = JsonException.class)
+    public void forgedCount() {
+        JsonPatch.fromBinary(new byte[] { 1, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 7 });
+    }
+
+    @Test(expected = JsonException.class)
+    public void forgedNameLength() {
+        JsonPatch.fromBinary(new byte[] { 1, 1, 0, 0, 1, (byte) 0xfc, (byte) 0xff, (byte) 0xff, (byte) 0xff, 7 });
+    }
+
+    @Test(expected = JsonException.class)
+    public void forgedDeepPointer() {
+        // remove of a pointer made of 200000 index tokens, "/1/1/1..."
+        final int tokens = 200000;
+        final byte[] binary = new byte[7 + tokens];
+        binary[0] = 1;
+        binary[1] = 1;
+        binary[2] = 1;
+        binary[3] = 0;
+        binary[4] = (byte) (0x80 | (tokens & 0x7f));
+        binary[5] = (byte) (0x80 | ((tokens >>> 7) & 0x7f));
+        binary[6] = (byte) (tokens >>> 14);
+        Arrays.fill(binary, 7, binary.length, (byte) 5);
+        JsonPatch.fromBinary(binary);
+    }
+
+    @Test(expected = JsonException.class)
+    public void deepPointerThroughItsPrefixes() {
+        // each remove extends the pointer of the previous one by 1000 tokens
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(1);
+        out.write(2);
+        for (int i = 0; i < 2; i++) {
+            out.write(1);
+            // prefix id, 0 then the last prefix of the first pointer
+            out.write(i == 0 ? 0 : 0xe8);
+            if (i == 1) {
+                out.write(0x07);
+            }
+            // 1000 tokens
+            out.write(0xe8);
+            out.write(0x07);
+            for (int t = 0; t < 1000; t++) {
+                out.write(5);
+            }
+        }
+        JsonPatch.fromBinary(out.toByteArray());
+    }
+
+    @Test
+    public void deepestPointer() {
+        final StringBuilder pointer = new StringBuilder();
+        for (int i = 0; i < JsonPatchCodec.MAX_TOKENS; i++) {
+            pointer.append("/a").append(i % 3);
+        }
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .remove(pointer.toString())
+                .add(pointer.substring(0, pointer.length() - 3) + "/b", 1)
+                .build());
+        assertEquals(patch, JsonPatch.fromBinary(patch.toBinary()));
+    }
+
+    @Test(expected = JsonException.class)
+    public void pointerTooDeepToEncode() {
+        final StringBuilder pointer = new StringBuilder();
+        for (int i = 0; i <= JsonPatchCodec.MAX_TOKENS; i++) {
+            pointer.append("/0");
+        }
+        new JsonPatch(new JsonPatchBuilder().remove(pointer.toString()).build()).toBinary();
+    }
+
+    @Test
+    public void deepestValue() {
+        JsonValue value = JsonValue.EMPTY_JSON_ARRAY;
+        for (int i = 1; i < JsonPatchCodec.MAX_DEPTH; i++) {
+            value = Json.createArrayBuilder().add(value).build();
+        }
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().add("/a", value).build());
+        assertEquals(patch, JsonPatch.fromBinary(patch.toBinary()));
+    }
+
+    @Test(expected = JsonException.class)
+    public void valueTooDeepToEncode() {
+        JsonValue value = JsonValue.EMPTY_JSON_ARRAY;
+        for (int i = 0; i < JsonPatchCodec.MAX_DEPTH; i++) {
+            value = Json.createArrayBuilder().add(value).build();
+        }
+        new JsonPatch(new JsonPatchBuilder().add("/a", value).build()).toBinary();
+    }
+
+    @Test(expected = JsonException.class)
+    public void stringTooLongToEncode() {
+        final char[] chars = new char[JsonPatchCodec.MAX_LENGTH / 3 + 1];
+        Arrays.fill(chars, '\u4e2d');
+        new JsonPatch(new JsonPatchBuilder().add("/a", new String(chars)).build()).toBinary();
+    }
+
+    @Test(expected = JsonException.class)
+    public void truncated() {
+        final byte[] binary = new JsonPatch(new JsonPatchBuilder().add("/a", "value").build()).toBinary();
+        final byte[] truncated = new byte[binary.length - 1];
+        System.arraycopy(binary, 0, truncated, 0, truncated.length);
+        JsonPatch.fromBinary(truncated);
+    }
+
+    @Test(expected = JsonException.class)
+    public void deeplyNestedValue() {
+        final byte[] binary = new byte[5 + 2 * (JsonPatchCodec.MAX_DEPTH + 1)];
+        binary[0] = 1;
+        binary[1] = 1;
+        for (int i = 5; i < binary.length; i += 2) {
+            // ARRAY of one item
+            binary[i] = 6;
+            binary[i + 1] = 1;
+        }
+        JsonPatch.fromBinary(binary);
+    }
+}
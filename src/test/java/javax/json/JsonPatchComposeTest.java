@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class JsonPatchComposeTest {
+    @Test
+    public void replacesAcrossPatchesCollapse() {
+        final JsonPatch first = new JsonPatch(new JsonPatchBuilder().replace("/a", 1).add("/b", 1).build());
+        final JsonPatch second = new JsonPatch(new JsonPatchBuilder().replace("/a", 2).build());
+        final JsonPatch third = new JsonPatch(new JsonPatchBuilder().replace("/a", 3).build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().replace("/a", 3).add("/b", 1).build()),
+                JsonPatch.compose(first, second, third));
+        assertEquals(JsonPatch.compose(first, second, third), JsonPatch.compose(Arrays.asList(first, second, third)));
+    }
+
+    @Test
+    public void laterPatchesFoldIntoAnAddedValue() {
+        final JsonPatch first = new JsonPatch(new JsonPatchBuilder().add("/x", JsonValue.EMPTY_JSON_ARRAY).build());
+        final JsonPatch second = new JsonPatch(new JsonPatchBuilder().add("/x/0", 1).add("/x/0", 2).build());
+        final JsonPatch third = new JsonPatch(new JsonPatchBuilder().remove("/x/1").add("/x/-", 3).build());
+        // the shifts happen inside a known value so the chain is resolved
+        assertEquals(new JsonPatch(new JsonPatchBuilder().add("/x", read("[2,3]")).build()),
+                JsonPatch.compose(first, second, third));
+    }
+
+    @Test
+    public void copyThenRemoveAcrossPatchesIsAMove() {
+        final JsonPatch first = new JsonPatch(new JsonPatchBuilder().copy("/b", "/a").build());
+        final JsonPatch second = new JsonPatch(new JsonPatchBuilder().replace("/c", 1).remove("/a").build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().move("/b", "/a").replace("/c", 1).build()),
+                JsonPatch.compose(first, second));
+    }
+
+    @Test
+    public void itemShiftsAreKeptWithoutABase() {
+        final JsonPatch first = new JsonPatch(new JsonPatchBuilder().add("/a/0", 1).add("/a/0", 2).build());
+        final JsonPatch second = new JsonPatch(new JsonPatchBuilder().remove("/a/1").remove("/a/3").build());
+        final JsonPatch composed = JsonPatch.compose(first, second);
+        assertEquals(4, read(composed.toString()).asJsonArray().size());
+
+        // on an array as on an object, which /a can't be told from without the target
+        final JsonStructure array = read("{\"a\":[9,8,7]}");
+        assertEquals(second.apply(first.apply(array)), composed.apply(array));
+        final JsonStructure object = read("{\"a\":{\"1\":0,\"3\":0}}");
+        assertEquals(second.apply(first.apply(object)), composed.apply(object));
+    }
+
+    @Test
+    public void itemShiftsAreResolvedOnABase() {
+        final JsonStructure base = read("{\"a\":[9,8,7]}");
+        final JsonPatch first = new JsonPatch(new JsonPatchBuilder().add("/a/0", 1).add("/a/0", 2).build());
+        final JsonPatch second = new JsonPatch(new JsonPatchBuilder().remove("/a/1").remove("/a/3").build());
+        final JsonPatch composed = JsonPatch.compose(base, first, second);
+        assertEquals(new JsonPatch(new JsonPatchBuilder().remove("/a/2").add("/a/0", 2).build()), composed);
+        assertEquals(read("{\"a\":[2,9,8]}"), composed.apply(base));
+    }
+
+    @Test
+    public void supersededOperationsDisappear() {
+        final JsonStructure base = read("{\"a\":1}");
+        final JsonPatch first = new JsonPatch(new JsonPatchBuilder().replace("/a", 2).add("/b", 1).build());
+        final JsonPatch second = new JsonPatch(new JsonPatchBuilder().replace("/a", 1).remove("/b").build());
+        assertEquals(new JsonPatch(JsonValue.EMPTY_JSON_ARRAY), JsonPatch.compose(base, first, second));
+        // without the base the add of /b may have overwritten a member so it stays
+        assertEquals(new JsonPatch(new JsonPatchBuilder().replace("/a", 1).add("/b", 1).remove("/b").build()),
+                JsonPatch.compose(first, second));
+    }
+
+    @Test
+    public void removeOfAReplacedRootKeepsItsType() {
+        final JsonPatch first = new JsonPatch(new JsonPatchBuilder().replace("", read("{\"a\":1}")).build());
+        final JsonPatch second = new JsonPatch(new JsonPatchBuilder().remove("").build());
+        final JsonStructure target = read("[1]");
+        assertEquals(JsonValue.EMPTY_JSON_OBJECT, JsonPatch.compose(first, second).apply(target));
+        assertEquals(JsonValue.EMPTY_JSON_OBJECT, JsonPatch.compose(target, first, second).apply(target));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class JsonPatchOptimizerTest {
+    @Test
+    public void replacesOfOnePathCollapse() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().replace("/a", 1).replace("/a", 2).build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().replace("/a", 2).build()), patch.optimize());
+    }
+
+    @Test
+    public void replaceAfterAddKeepsTheAdd() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().add("/a", 1).replace("/a", 2).build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().add("/a", 2).build()), patch.optimize());
+    }
+
+    @Test
+    public void removeSupersedesAReplace() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .replace("/a", 1)
+                .replace("/b", 1)
+                .remove("/a")
+                .build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().replace("/b", 1).remove("/a").build()), patch.optimize());
+    }
+
+    @Test
+    public void removeOfAReplacedRootEmptiesIt() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .replace("", read("{\"a\":1}"))
+                .remove("")
+                .build());
+        final JsonPatch optimized = patch.optimize();
+        assertEquals(new JsonPatch(new JsonPatchBuilder().replace("", JsonValue.EMPTY_JSON_OBJECT).build()), optimized);
+        final JsonStructure target = read("[1]");
+        assertEquals(patch.apply(target), optimized.apply(target));
+    }
+
+    @Test
+    public void removeAfterAddIsKept() {
+        // the add may have overwritten an existing member
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().add("/a", 1).remove("/a").build());
+        assertSame(patch, patch.optimize());
+    }
+
+    @Test
+    public void passingTestIsDropped() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().replace("/a", 1).test("/a", 1).test("/a", 2).build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().replace("/a", 1).test("/a", 2).build()), patch.optimize());
+    }
+
+    @Test
+    public void copyThenRemoveOfTheSourceIsAMove() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().copy("/b", "/a").remove("/a").build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().move("/b", "/a").build()), patch.optimize());
+    }
+
+    @Test
+    public void copyThenRemoveOfASiblingItemIsKept() {
+        // the copy shifts the item the remove addresses
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().copy("/a/0", "/a/1").remove("/a/1").build());
+        assertSame(patch, patch.optimize());
+    }
+
+    @Test
+    public void operationsBelowAnAddedValueAreMerged() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .add("/x", JsonValue.EMPTY_JSON_OBJECT)
+                .add("/x/y", 1)
+                .replace("/x/y", 2)
+                .test("/x/y", 2)
+                .build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().add("/x", read("{\"y\":2}")).build()),
+                patch.optimize());
+    }
+
+    @Test
+    public void operationFailingOnAnAddedValueIsKept() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().add("/x", JsonValue.EMPTY_JSON_OBJECT).remove("/x/y").build());
+        assertSame(patch, patch.optimize());
+    }
+
+    @Test
+    public void itemShiftStopsTheLookback() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .replace("/a/1", 1)
+                .add("/a/0", 0)
+                .replace("/a/1", 2)
+                .build());
+        assertSame(patch, patch.optimize());
+    }
+
+    @Test
+    public void independentOperationsDontStopTheLookback() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder()
+                .replace("/a/1", 1)
+                .add("/b/0", 0)
+                .replace("/a/0", 0)
+                .replace("/a/1", 2)
+                .build());
+        assertEquals(new JsonPatch(new JsonPatchBuilder().replace("/a/1", 2).add("/b/0", 0).replace("/a/0", 0).build()),
+                patch.optimize());
+    }
+
+    @Test
+    public void unchangedPatchIsReturnedAsIs() {
+        final JsonPatch patch = new JsonPatch(new JsonPatchBuilder().add("/a", 1).replace("/b", 2).build());
+        assertSame(patch, patch.optimize());
+
+        final JsonPatch optimizable = new JsonPatch(new JsonPatchBuilder().replace("/a", 1).replace("/a", 1).build());
+        assertNotSame(optimizable, optimizable.optimize());
+    }
+}
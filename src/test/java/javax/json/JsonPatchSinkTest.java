@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.stream.JsonGenerator;
+
+import org.junit.Test;
+
+public class JsonPatchSinkTest {
+    private static final JsonStructure SOURCE = read("{\"a\":[1,2,3],\"b\":{\"c\":1},\"m/n\":0}");
+    private static final JsonStructure TARGET = read("{\"a\":[3,1,2,4],\"b\":{},\"m/n\":1,\"d\":[]}");
+    private static final JsonArray PATCH = read("[{\"op\":\"move\",\"path\":\"/a/0\",\"from\":\"/a/2\"},"
+            + "{\"op\":\"add\",\"path\":\"/a/3\",\"value\":4},{\"op\":\"remove\",\"path\":\"/b/c\"},"
+            + "{\"op\":\"add\",\"path\":\"/d\",\"value\":[]},{\"op\":\"replace\",\"path\":\"/m~1n\",\"value\":1}]")
+            .asJsonArray();
+
+    @Test
+    public void array() {
+        assertEquals(PATCH, JsonPatch.diff(SOURCE, TARGET));
+        assertEquals(TARGET, new JsonPatch(PATCH).apply(SOURCE));
+    }
+
+    @Test
+    public void consumerGetsOneObjectPerOperation() {
+        final List<JsonObject> operations = new ArrayList<>();
+        JsonPatch.diff(SOURCE, TARGET, operations::add);
+        assertEquals(PATCH, operations);
+
+        operations.clear();
+        JsonPatch.diff(SOURCE, SOURCE, operations::add);
+        assertEquals(0, operations.size());
+    }
+
+    @Test
+    public void builderIsAppendedTo() {
+        final JsonPatchBuilder builder = new JsonPatchBuilder().test("/b/c", Json.createValue(1));
+        JsonPatch.diff(SOURCE, TARGET, builder);
+        final JsonArray patch = builder.build();
+        assertEquals(PATCH.size() + 1, patch.size());
+        assertEquals("test", patch.getJsonObject(0).getString("op"));
+        assertEquals(PATCH, patch.subList(1, patch.size()));
+    }
+
+    @Test
+    public void generatorGetsTheArray() {
+        assertEquals(PATCH, read(write(SOURCE, TARGET)));
+        assertEquals(JsonValue.EMPTY_JSON_ARRAY, read(write(SOURCE, SOURCE)));
+
+        // the patch is a value the caller may nest
+        final StringWriter writer = new StringWriter();
+        try (final JsonGenerator generator = Json.createGenerator(writer)) {
+            generator.writeStartArray();
+            JsonPatch.diff(SOURCE, TARGET, generator);
+            generator.write(1);
+            generator.writeEnd();
+        }
+        assertEquals(Json.createArrayBuilder().add(PATCH).add(1).build(), read(writer.toString()));
+    }
+
+    private static String write(final JsonStructure source, final JsonStructure target) {
+        final StringWriter writer = new StringWriter();
+        try (final JsonGenerator generator = Json.createGenerator(writer)) {
+            JsonPatch.diff(source, target, generator);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class JsonPatchTest {
+    @Test
+    public void invalidOperationsFailAtConstruction() {
+        final String[] invalid = {
+            "[1]",
+            "[{\"path\":\"/a\"}]",
+            "[{\"op\":\"frobnicate\",\"path\":\"/a\"}]",
+            "[{\"op\":\"remove\"}]",
+            "[{\"op\":\"remove\",\"path\":1}]",
+            "[{\"op\":\"remove\",\"path\":\"a\"}]",
+            "[{\"op\":\"add\",\"path\":\"/a\"}]",
+            "[{\"op\":\"move\",\"path\":\"/a\"}]",
+            "[{\"op\":\"copy\",\"path\":\"/a\",\"from\":\"b\"}]"
+        };
+        for (final String patch : invalid) {
+            try {
+                new JsonPatch(read(patch).asJsonArray());
+                fail(patch);
+            } catch (final JsonException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void moveWithinAnArrayRemovesBeforeAdding() {
+        final JsonPatch patch = new JsonPatch(read("[{\"op\":\"move\",\"from\":\"/0\",\"path\":\"/2\"}]").asJsonArray());
+        assertEquals(read("[1,2,0,3]"), patch.apply(read("[0,1,2,3]")));
+    }
+}
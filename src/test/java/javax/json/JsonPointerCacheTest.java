@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class JsonPointerCacheTest {
+    @Test
+    public void hitsAndMisses() {
+        final JsonPointerCache cache = new JsonPointerCache(4);
+        final JsonPointer pointer = cache.get("/a");
+        assertSame(pointer, cache.get("/a"));
+        assertSame(pointer, cache.get("/a"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertNotSame(pointer, cache.get("/a"));
+    }
+
+    @Test
+    public void evictionKeepsRecentlyUsedEntries() {
+        final JsonPointerCache cache = new JsonPointerCache(2);
+        final JsonPointer a = cache.get("/a");
+        cache.get("/b");
+        cache.get("/a");
+        cache.get("/c");
+        assertEquals(2, cache.size());
+        // /a was used since it was cached, /b or /c goes first
+        assertSame(a, cache.get("/a"));
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("/" + i);
+            assertTrue(cache.size() <= 2);
+        }
+    }
+
+    @Test
+    public void resize() {
+        final JsonPointerCache cache = new JsonPointerCache(8);
+        for (int i = 0; i < 8; i++) {
+            cache.get("/" + i);
+        }
+        cache.setMaxSize(3);
+        assertEquals(3, cache.size());
+
+        cache.setMaxSize(0);
+        assertEquals(0, cache.size());
+        assertNotSame(cache.get("/a"), cache.get("/a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSize() {
+        new JsonPointerCache(-1);
+    }
+
+    @Test
+    public void invalidPointersAreNotCached() {
+        final JsonPointerCache cache = new JsonPointerCache(4);
+        for (final String pointer : new String[] { "a", null }) {
+            try {
+                cache.get(pointer);
+                fail(pointer);
+            } catch (final JsonException e) {
+                // expected
+            }
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void structureLookupsGoThroughTheCache() {
+        final int size = JsonPointer.getCacheSize();
+        try {
+            JsonPointer.setCacheSize(16);
+            JsonPointer.clearCache();
+            final JsonObject document = Json.createObjectBuilder().add("a", 1).build();
+            document.getValue("/a");
+            document.getValue("/a");
+            assertSame(JsonPointer.compile("/a"), JsonPointer.compile("/a"));
+            assertEquals(1, JsonPointer.getCacheMissCount());
+            assertEquals(3, JsonPointer.getCacheHitCount());
+        } finally {
+            JsonPointer.setCacheSize(size);
+            JsonPointer.clearCache();
+        }
+    }
+}
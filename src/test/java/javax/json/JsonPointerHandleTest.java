@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.expectFailure;
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class JsonPointerHandleTest {
+    // the example document of draft-handrews-relative-json-pointer-01
+    private static final JsonObject DOCUMENT = read("{\"foo\":[\"bar\",\"baz\"],"
+            + "\"highly\":{\"nested\":{\"objects\":true}},\"a/b\":{\"m~n\":1}}").asJsonObject();
+
+    @Test
+    public void handle() {
+        final JsonPointerHandle handle = new JsonPointer("/foo/1").getHandle(DOCUMENT);
+        assertEquals(Json.createValue("baz"), handle.getValue());
+        assertSame(DOCUMENT, handle.getRoot());
+        assertEquals(new JsonPointer("/foo/1"), handle.getPointer());
+        assertEquals("/foo/1", handle.toString());
+
+        final JsonPointerHandle root = new JsonPointer("").getHandle(DOCUMENT);
+        assertSame(DOCUMENT, root.getValue());
+        assertEquals("", root.toString());
+    }
+
+    @Test
+    public void relativeToAnArrayItem() {
+        final JsonPointerHandle handle = new JsonPointer("/foo/1").getHandle(DOCUMENT);
+        assertEquals(Json.createValue("baz"), handle.getValue("0"));
+        assertEquals(Json.createValue("bar"), handle.getValue("1/0"));
+        assertEquals(JsonValue.TRUE, handle.getValue("2/highly/nested/objects"));
+        assertEquals(Json.createValue(1), handle.getValue("0#"));
+        assertEquals(Json.createValue("foo"), handle.getValue("1#"));
+    }
+
+    @Test
+    public void relativeToAnObjectMember() {
+        final JsonPointerHandle handle = new JsonPointer("/highly/nested").getHandle(DOCUMENT);
+        assertEquals(JsonValue.TRUE, handle.getValue("0/objects"));
+        assertEquals(JsonValue.TRUE, handle.getValue("1/nested/objects"));
+        assertEquals(Json.createValue("bar"), handle.getValue("2/foo/0"));
+        assertEquals(Json.createValue("nested"), handle.getValue("0#"));
+        assertEquals(Json.createValue("highly"), handle.getValue("1#"));
+        assertEquals(JsonValue.TRUE, handle.getValue(new JsonPointer("/objects")));
+    }
+
+    @Test
+    public void escapedTokens() {
+        final JsonPointerHandle handle = new JsonPointer("/a~1b/m~0n").getHandle(DOCUMENT);
+        assertEquals(Json.createValue(1), handle.getValue());
+        assertEquals("/a~1b/m~0n", handle.toString());
+        assertEquals(Json.createValue("m~n"), handle.getValue("0#"));
+        assertEquals(Json.createValue("a/b"), handle.getValue("1#"));
+    }
+
+    @Test
+    public void handles() {
+        final JsonPointerHandle item = new JsonPointer("/foo/1").getHandle(DOCUMENT);
+        final JsonPointerHandle sibling = item.getHandle("1/0");
+        assertEquals(Json.createValue("bar"), sibling.getValue());
+        assertEquals("/foo/0", sibling.toString());
+        assertEquals(Json.createValue(0), sibling.getValue("0#"));
+
+        final JsonPointerHandle nested = item.getHandle("2/highly").getHandle(new JsonPointer("/nested"));
+        assertEquals("/highly/nested", nested.toString());
+        assertEquals(Json.createValue("highly"), nested.getValue("1#"));
+        // the original handle is left as is
+        assertEquals("/foo/1", item.toString());
+    }
+
+    @Test
+    public void failures() {
+        final JsonPointerHandle handle = new JsonPointer("/highly/nested").getHandle(DOCUMENT);
+        expectFailure(() -> handle.getValue("2#"));
+        expectFailure(() -> handle.getValue("3"));
+        expectFailure(() -> handle.getValue(""));
+        expectFailure(() -> handle.getValue("-1"));
+        expectFailure(() -> handle.getValue("01/objects"));
+        expectFailure(() -> handle.getValue("0#/objects"));
+        expectFailure(() -> handle.getValue("0objects"));
+        expectFailure(() -> handle.getValue("0/missing"));
+        expectFailure(() -> handle.getValue(new JsonPointer("/missing")));
+        expectFailure(() -> handle.getHandle("1/missing"));
+        expectFailure(() -> handle.getHandle(new JsonPointer("/objects/0")));
+        expectFailure(() -> new JsonPointer("/foo/2").getHandle(DOCUMENT));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.json.stream.JsonParser;
+
+import org.junit.Test;
+
+public class JsonPointerSetTest {
+    private static final JsonObject DOCUMENT = read("{\"a\":{\"b\":[1,{\"c\":2}],\"d\":3},\"e/f\":4,\"g\":null}")
+            .asJsonObject();
+
+    @Test
+    public void ordinalsFollowTheIterationOrder() {
+        final JsonPointerSet set = JsonPointerSet.compile(Arrays.asList("/a/d", "", "/a/d"));
+        assertEquals(3, set.size());
+        assertEquals("/a/d", set.getPointer(0).toString());
+        assertEquals("", set.getPointer(1).toString());
+
+        final JsonValue[] values = set.getValues(DOCUMENT);
+        assertEquals(Json.createValue(3), values[0]);
+        assertSame(DOCUMENT, values[1]);
+        assertEquals(values[0], values[2]);
+    }
+
+    @Test
+    public void sharedPrefixes() {
+        final JsonPointerSet set = JsonPointerSet.compile(Arrays.asList("/a", "/a/b/1/c", "/a/b/0", "/e~1f", "/g"));
+        final JsonValue[] values = set.getValues(DOCUMENT);
+        assertSame(DOCUMENT.get("a"), values[0]);
+        assertEquals(Json.createValue(2), values[1]);
+        assertEquals(Json.createValue(1), values[2]);
+        assertEquals(Json.createValue(4), values[3]);
+        assertSame(JsonValue.NULL, values[4]);
+
+        // the values are the ones a single pointer resolves
+        for (int i = 0; i < set.size(); i++) {
+            assertEquals(set.getPointer(i).getValue(DOCUMENT), values[i]);
+        }
+    }
+
+    @Test
+    public void unresolvedPointersAreNull() {
+        final JsonPointerSet set = JsonPointerSet.compile(Arrays.asList("/a/x", "/a/b/2", "/a/b/-", "/a/d/0", "/e~1f"));
+        assertArrayEquals(new JsonValue[] { null, null, null, null, Json.createValue(4) }, set.getValues(DOCUMENT));
+    }
+
+    @Test
+    public void valueMapSkipsUnresolvedPointers() {
+        final Map<String, JsonValue> expected = new LinkedHashMap<>();
+        expected.put("/a/d", Json.createValue(3));
+        expected.put("/a/b/1/c", Json.createValue(2));
+        assertEquals(expected, JsonPointerSet.compile(Arrays.asList("/a/d", "/x", "/a/b/1/c")).getValueMap(DOCUMENT));
+    }
+
+    @Test
+    public void arrayTarget() {
+        final JsonStructure items = read("[[0,1],{\"0\":2}]");
+        final JsonValue[] values = JsonPointerSet.compile(Arrays.asList("/0/1", "/1/0", "/01")).getValues(items);
+        assertEquals(Json.createValue(1), values[0]);
+        assertEquals(Json.createValue(2), values[1]);
+        assertNull(values[2]);
+    }
+
+    @Test(expected = JsonException.class)
+    public void invalidPointer() {
+        JsonPointerSet.compile(Arrays.asList("/a", "a"));
+    }
+
+    @Test
+    public void parserMatchesTree() {
+        final JsonPointerSet set = JsonPointerSet.compile(Arrays.asList("/a/b/1", "/a/b/1/c", "/x", "/e~1f", "/g",
+                "/a/b/5"));
+        try (final JsonParser parser = parse(DOCUMENT.toString())) {
+            assertArrayEquals(set.getValues(DOCUMENT), set.getValues(parser));
+        }
+        try (final JsonParser parser = parse(DOCUMENT.toString())) {
+            assertEquals(set.getValueMap(DOCUMENT), set.getValueMap(parser));
+        }
+    }
+
+    @Test
+    public void parserStopsOnceAllPointersAreResolved() {
+        try (final JsonParser parser = parse("{\"a\":{\"b\":1},\"c\":[2,3],\"d\":4}")) {
+            final JsonValue[] values = JsonPointerSet.compile(Arrays.asList("/c/0", "/a")).getValues(parser);
+            assertEquals(Json.createValue(2), values[0]);
+            assertEquals(read("{\"b\":1}"), values[1]);
+            // the rest of the array and the last member are left to the caller
+            assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+            assertEquals(3, parser.getInt());
+        }
+    }
+
+    @Test
+    public void parserSkipsUnmatchedSubtrees() {
+        try (final JsonParser parser = parse("[{\"a\":[[1],{\"b\":2}]},[3,[4]],5]")) {
+            final JsonValue[] values = JsonPointerSet.compile(Arrays.asList("/2", "/1/1/0")).getValues(parser);
+            assertEquals(Json.createValue(5), values[0]);
+            assertEquals(Json.createValue(4), values[1]);
+            assertEquals(JsonParser.Event.END_ARRAY, parser.next());
+            assertFalse(parser.hasNext());
+        }
+    }
+
+    @Test
+    public void parserReadsTheNextValueOnly() {
+        try (final JsonParser parser = parse("{\"a\":[1,2],\"b\":3}")) {
+            assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+            assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+            final JsonValue[] values = JsonPointerSet.compile(Arrays.asList("/1", "/2")).getValues(parser);
+            assertEquals(Json.createValue(2), values[0]);
+            assertNull(values[1]);
+            assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+            assertEquals("b", parser.getString());
+        }
+    }
+
+    @Test
+    public void emptyParser() {
+        try (final JsonParser parser = parse("[]")) {
+            parser.next();
+            parser.next();
+            assertArrayEquals(new JsonValue[1], JsonPointerSet.compile(Arrays.asList("")).getValues(parser));
+        }
+    }
+
+    private static JsonParser parse(final String json) {
+        return Json.createParser(new StringReader(json));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static javax.json.JsonTestSupport.expectFailure;
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class JsonPointerTest {
+    private static final JsonObject DOCUMENT = read("{\"\":0,\"a/b\":1,\"m~n\":2,\"~1\":3,\"01\":4,\"-\":5,"
+            + "\"items\":[10,11,12],\" \":6}").asJsonObject();
+
+    @Test
+    public void emptyPointerIsTheWholeDocument() {
+        assertEquals(DOCUMENT, new JsonPointer("").getValue(DOCUMENT));
+    }
+
+    @Test
+    public void slashIsTheEmptyName() {
+        assertEquals(Json.createValue(0), new JsonPointer("/").getValue(DOCUMENT));
+        assertEquals(Json.createValue(6), new JsonPointer("/ ").getValue(DOCUMENT));
+    }
+
+    @Test
+    public void escapes() {
+        assertEquals(Json.createValue(1), new JsonPointer("/a~1b").getValue(DOCUMENT));
+        assertEquals(Json.createValue(2), new JsonPointer("/m~0n").getValue(DOCUMENT));
+        // ~01 is ~ followed by 1, not /
+        assertEquals(Json.createValue(3), new JsonPointer("/~01").getValue(DOCUMENT));
+    }
+
+    @Test
+    public void invalidPointers() {
+        for (final String pointer : new String[] { "a", "/~", "/a~", "/~2", "/a~x/b", null }) {
+            try {
+                new JsonPointer(pointer);
+                fail(pointer);
+            } catch (final JsonException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void dashOnlyAppends() {
+        final JsonArray items = DOCUMENT.getJsonArray("items");
+        assertEquals(read("[10,11,12,13]"), new JsonPointer("/-").add(items, Json.createValue(13)));
+        expectFailure(() -> new JsonPointer("/-").getValue(items));
+        expectFailure(() -> new JsonPointer("/-").remove(items));
+        expectFailure(() -> new JsonPointer("/-").replace(items, Json.createValue(13)));
+        // on an object it is a name like any other
+        assertEquals(Json.createValue(5), new JsonPointer("/-").getValue(DOCUMENT));
+    }
+
+    @Test
+    public void arrayIndices() {
+        final JsonArray items = DOCUMENT.getJsonArray("items");
+        assertEquals(Json.createValue(10), new JsonPointer("/0").getValue(items));
+        assertEquals(Json.createValue(12), new JsonPointer("/2").getValue(items));
+        // adding at the size appends, anything past it fails
+        assertEquals(read("[10,11,12,13]"), new JsonPointer("/3").add(items, Json.createValue(13)));
+        expectFailure(() -> new JsonPointer("/3").getValue(items));
+        expectFailure(() -> new JsonPointer("/4").add(items, Json.createValue(13)));
+        expectFailure(() -> new JsonPointer("/3").remove(items));
+    }
+
+    @Test
+    public void leadingZerosAndOverflowAreNotIndices() {
+        final JsonArray items = DOCUMENT.getJsonArray("items");
+        expectFailure(() -> new JsonPointer("/01").getValue(items));
+        expectFailure(() -> new JsonPointer("/00").getValue(items));
+        expectFailure(() -> new JsonPointer("/+1").getValue(items));
+        expectFailure(() -> new JsonPointer("/4294967296").getValue(items));
+        expectFailure(() -> new JsonPointer("/99999999999").add(items, Json.createValue(1)));
+        // but fine member names
+        assertEquals(Json.createValue(4), new JsonPointer("/01").getValue(DOCUMENT));
+    }
+
+    @Test
+    public void getValueReturnsTheValueOfTheDocument() {
+        final JsonObject document = read("{\"a\":{\"b\":[{\"c\":{\"d\":1}}]},\"e\":2}").asJsonObject();
+        final JsonValue c = document.getJsonObject("a").getJsonArray("b").getJsonObject(0).get("c");
+        // nothing along the path is copied
+        assertSame(c, new JsonPointer("/a/b/0/c").getValue(document));
+        assertSame(c, document.getValue("/a/b/0/c"));
+    }
+
+    @Test
+    public void getValueOfMissingLocations() {
+        expectFailure(() -> new JsonPointer("/missing").getValue(DOCUMENT));
+        expectFailure(() -> new JsonPointer("/missing/x").getValue(DOCUMENT));
+        // a token applied to a number
+        expectFailure(() -> new JsonPointer("/a~1b/x").getValue(DOCUMENT));
+        expectFailure(() -> new JsonPointer("/items/1/x").getValue(DOCUMENT));
+        expectFailure(() -> new JsonPointer("/items/x").getValue(DOCUMENT));
+    }
+
+    @Test
+    public void mutationsShareUnchangedSiblings() {
+        final JsonObject document = read("{\"a\":{\"b\":[{\"x\":1},{\"y\":2}],\"c\":{\"z\":3}},\"d\":[4]}").asJsonObject();
+        final JsonObject a = document.getJsonObject("a");
+        final JsonArray b = a.getJsonArray("b");
+
+        final JsonObject added = new JsonPointer("/a/b/1/w").add(document, Json.createValue(5));
+        assertEquals(read("{\"w\":5,\"y\":2}"), added.getValue("/a/b/1"));
+        assertSharedSiblings(document, added);
+
+        final JsonObject replaced = new JsonPointer("/a/b/1/y").replace(document, Json.createValue(5));
+        assertEquals(Json.createValue(5), replaced.getValue("/a/b/1/y"));
+        assertSharedSiblings(document, replaced);
+
+        final JsonObject removed = new JsonPointer("/a/b/1/y").remove(document);
+        assertEquals(JsonValue.EMPTY_JSON_OBJECT, removed.getValue("/a/b/1"));
+        assertSharedSiblings(document, removed);
+
+        // the target is left as is
+        assertSame(a, document.getJsonObject("a"));
+        assertSame(b, a.getJsonArray("b"));
+        assertEquals(read("{\"y\":2}"), b.get(1));
+    }
+
+    @Test
+    public void mutationsFailOnMissingParents() {
+        expectFailure(() -> new JsonPointer("/missing/x").add(DOCUMENT, Json.createValue(1)));
+        expectFailure(() -> new JsonPointer("/missing").replace(DOCUMENT, Json.createValue(1)));
+        expectFailure(() -> new JsonPointer("/missing").remove(DOCUMENT));
+        expectFailure(() -> new JsonPointer("/items/3/x").add(DOCUMENT, Json.createValue(1)));
+    }
+
+    private static void assertSharedSiblings(final JsonObject original, final JsonObject mutated) {
+        assertSame(original.get("d"), mutated.get("d"));
+        assertSame(original.getValue("/a/c"), mutated.getValue("/a/c"));
+        assertSame(original.getValue("/a/b/0"), mutated.getValue("/a/b/0"));
+    }
+
+    @Test
+    public void pointerIdentity() {
+        assertEquals(new JsonPointer("/a~1b"), new JsonPointer("/a~1b"));
+        assertEquals(new JsonPointer("/a~1b").hashCode(), new JsonPointer("/a~1b").hashCode());
+        assertEquals("/a~1b", new JsonPointer("/a~1b").toString());
+    }
+}
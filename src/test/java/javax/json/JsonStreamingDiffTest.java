@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.json.stream.JsonGenerator;
+
+import org.junit.Test;
+
+public class JsonStreamingDiffTest {
+    @Test
+    public void membersInTheSameOrder() {
+        assertDiff("{\"a\":1,\"b\":{\"c\":[1,2]}}", "{\"a\":2,\"b\":{\"c\":[1,3]}}",
+                "[{\"op\":\"replace\",\"path\":\"/a\",\"value\":2},{\"op\":\"replace\",\"path\":\"/b/c/1\",\"value\":3}]");
+        assertDiff("{\"a\":1,\"b\":{\"c\":[1,2]}}", "{\"a\":1,\"b\":{\"c\":[1,2]}}", "[]");
+    }
+
+    @Test
+    public void membersOutOfOrder() {
+        // buffered members are diffed when their counterpart shows up, the rest is removed or added at the end
+        assertDiff("{\"a\":1,\"b\":[2],\"c\":3}", "{\"c\":3,\"b\":[5],\"d\":4}",
+                "[{\"op\":\"replace\",\"path\":\"/b/0\",\"value\":5},{\"op\":\"remove\",\"path\":\"/a\"},"
+                + "{\"op\":\"add\",\"path\":\"/d\",\"value\":4}]");
+    }
+
+    @Test
+    public void arraysAreComparedByIndex() {
+        assertDiff("[1,2,3]", "[2,3]", "[{\"op\":\"replace\",\"path\":\"/0\",\"value\":2},"
+                + "{\"op\":\"replace\",\"path\":\"/1\",\"value\":3},{\"op\":\"remove\",\"path\":\"/2\"}]");
+        assertDiff("[1]", "[1,2,3]",
+                "[{\"op\":\"add\",\"path\":\"/1\",\"value\":2},{\"op\":\"add\",\"path\":\"/2\",\"value\":3}]");
+    }
+
+    @Test
+    public void typeChangesAndEscapedNames() {
+        assertDiff("{\"a\":[1],\"m/n\":{\"~\":1}}", "{\"a\":{\"b\":1},\"m/n\":{\"~\":2}}",
+                "[{\"op\":\"replace\",\"path\":\"/a\",\"value\":{\"b\":1}},"
+                + "{\"op\":\"replace\",\"path\":\"/m~1n/~0\",\"value\":2}]");
+        assertDiff("[1]", "{}", "[{\"op\":\"replace\",\"path\":\"\",\"value\":{}}]");
+    }
+
+    private static void assertDiff(final String source, final String target, final String expected) {
+        final StringWriter writer = new StringWriter();
+        try (final JsonGenerator generator = Json.createGenerator(writer)) {
+            JsonPatch.diff(Json.createParser(new StringReader(source)), Json.createParser(new StringReader(target)),
+                    generator);
+        }
+        final JsonArray patch = read(writer.toString()).asJsonArray();
+        assertEquals(read(expected), patch);
+        assertEquals(read(target), new JsonPatch(patch).apply(read(source)));
+    }
+}
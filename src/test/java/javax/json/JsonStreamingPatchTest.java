@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.expectFailure;
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.json.stream.JsonGenerator;
+
+import org.junit.Test;
+
+public class JsonStreamingPatchTest {
+    private static final String DOCUMENT = "{\"a\":1,\"b\":{\"c\":[1,2]},\"d\":{\"e\":1.50}}";
+
+    @Test
+    public void untouchedEventsAreCopied() {
+        assertEquals(DOCUMENT, streamApply(new JsonPatchBuilder().build(), DOCUMENT));
+        assertEquals("{\"a\":1,\"b\":{\"c\":[1,2,3]},\"d\":{\"e\":1.50}}",
+                streamApply(new JsonPatchBuilder().add("/b/c/-", 3).build(), DOCUMENT));
+    }
+
+    @Test
+    public void operations() {
+        assertEquals("{\"a\":1,\"d\":{\"e\":1.50}}", streamApply(new JsonPatchBuilder().remove("/b").build(), DOCUMENT));
+        assertEquals("{\"a\":{\"e\":1.50},\"b\":{\"c\":[1,2]},\"d\":{\"e\":1.50}}",
+                streamApply(new JsonPatchBuilder().copy("/a", "/d").build(), DOCUMENT));
+        assertEquals("{\"b\":{\"c\":[1,2]},\"d\":{\"e\":1.50,\"f\":1}}",
+                streamApply(new JsonPatchBuilder().move("/d/f", "/a").build(), DOCUMENT));
+        assertEquals("{\"a\":1,\"b\":{\"c\":[0,1]},\"d\":{\"e\":1.50}}",
+                streamApply(new JsonPatchBuilder().add("/b/c/0", 0).remove("/b/c/2").build(), DOCUMENT));
+        assertEquals("[1]", streamApply(new JsonPatchBuilder().replace("", Json.createArrayBuilder().add(1).build())
+                .build(), DOCUMENT));
+    }
+
+    @Test
+    public void arrayItems() {
+        final String document = "[1,[2,3],{\"a\":4}]";
+        assertEquals("[1,[2,9],{\"a\":4}]",
+                streamApply(new JsonPatchBuilder().test("/1/0", 2).replace("/1/1", 9).build(), document));
+        assertEquals("[1,[2,3],{\"a\":4,\"b\":[2,3]}]",
+                streamApply(new JsonPatchBuilder().copy("/2/b", "/1").build(), document));
+        assertEquals("[[2,3],1,{\"a\":4}]", streamApply(new JsonPatchBuilder().move("/0", "/1").build(), document));
+        expectFailure(() -> streamApply(new JsonPatchBuilder().replace("/5", 1).build(), document));
+    }
+
+    @Test
+    public void moveFromLaterInTheDocument() {
+        final JsonArray patch = new JsonPatchBuilder().move("/a", "/d/e").remove("/b/c/0").build();
+        assertEquals("{\"a\":1.50,\"b\":{\"c\":[2]},\"d\":{}}", streamApply(patch, DOCUMENT));
+    }
+
+    @Test
+    public void manyIndependentOperations() {
+        final JsonObjectBuilder source = Json.createObjectBuilder();
+        final JsonObjectBuilder expected = Json.createObjectBuilder();
+        final JsonPatchBuilder builder = new JsonPatchBuilder();
+        for (int i = 0; i < 20000; i++) {
+            source.add("m" + i, Json.createArrayBuilder().add(i).add(i));
+            expected.add("m" + i, Json.createArrayBuilder().add(i).add(-i));
+            builder.replace("/m" + i + "/1", -i);
+        }
+        assertEquals(expected.build().toString(), streamApply(builder.build(), source.build().toString()));
+    }
+
+    @Test
+    public void itemShiftsOrderTheOperationsOfTheArray() {
+        final JsonArray patch = new JsonPatchBuilder()
+                .replace("/a/1/x", 3)
+                .add("/a/0", 0)
+                .replace("/a/1/x", 4)
+                .replace("/b/0", 5)
+                .build();
+        assertEquals("{\"a\":[0,{\"x\":4},{\"x\":3}],\"b\":[5]}",
+                streamApply(patch, "{\"a\":[{\"x\":1},{\"x\":2}],\"b\":[0]}"));
+    }
+
+    @Test
+    public void failures() {
+        expectFailure(() -> streamApply(new JsonPatchBuilder().test("/a", 2).build(), DOCUMENT));
+        expectFailure(() -> streamApply(new JsonPatchBuilder().move("/q", "/x/y").build(), DOCUMENT));
+        expectFailure(() -> streamApply(new JsonPatchBuilder().remove("/b/c/2").build(), DOCUMENT));
+        expectFailure(() -> streamApply(new JsonPatchBuilder().add("/x/y", 1).build(), DOCUMENT));
+    }
+
+    private static String streamApply(final JsonArray patch, final String document) {
+        final StringWriter writer = new StringWriter();
+        try (final JsonGenerator generator = Json.createGenerator(writer)) {
+            new JsonPatch(patch).apply(Json.createParser(new StringReader(document)), generator);
+        }
+        return writer.toString();
+    }
+}
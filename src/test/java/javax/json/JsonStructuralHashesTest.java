@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class JsonStructuralHashesTest {
+    @Test
+    public void equalValuesHashAlike() {
+        final JsonStructuralHashes hashes = new JsonStructuralHashes();
+        final JsonValue a = read("{\"a\":[1,{\"b\":2}],\"c\":null}");
+        final JsonValue b = read("{\"c\":null,\"a\":[1,{\"b\":2}]}");
+        assertEquals(hashes.hash(a), hashes.hash(b));
+        assertTrue(hashes.equal(a, b));
+        assertEquals(hashes.key(a), hashes.key(b));
+        assertEquals(hashes.key(a).hashCode(), hashes.key(b).hashCode());
+
+        assertEquals(Json.createValue("x").hashCode(), hashes.hash(Json.createValue("x")));
+        assertTrue(hashes.equal(Json.createValue(1), Json.createValue(1)));
+    }
+
+    @Test
+    public void differentValues() {
+        final JsonStructuralHashes hashes = new JsonStructuralHashes();
+        assertNotEquals(hashes.hash(read("[1,2]")), hashes.hash(read("[2,1]")));
+        assertNotEquals(hashes.hash(read("{\"a\":1}")), hashes.hash(read("{\"a\":2}")));
+        assertNotEquals(hashes.hash(read("{\"a\":1}")), hashes.hash(read("{\"b\":1}")));
+        assertFalse(hashes.equal(read("[[1]]"), read("[[2]]")));
+        assertFalse(hashes.equal(JsonValue.EMPTY_JSON_OBJECT, JsonValue.EMPTY_JSON_ARRAY));
+        assertNotEquals(hashes.key(read("[1,2]")), hashes.key(read("[2,1]")));
+    }
+
+    @Test
+    public void size() {
+        final JsonStructuralHashes hashes = new JsonStructuralHashes();
+        assertEquals(6, hashes.size(read("{\"a\":[1,{\"b\":2}],\"c\":null}")));
+        assertEquals(1, hashes.size(JsonValue.EMPTY_JSON_ARRAY));
+        assertEquals(1, hashes.size(Json.createValue(1)));
+    }
+
+    @Test
+    public void hashesAreMemoized() {
+        final AtomicInteger walks = new AtomicInteger();
+        final JsonObject value = counting(read("{\"a\":[1,{\"b\":2}]}").asJsonObject(), walks);
+        final JsonStructuralHashes hashes = new JsonStructuralHashes();
+        final int hash = hashes.hash(value);
+        assertEquals(hash, hashes.hash(value));
+        assertEquals(5, hashes.size(value));
+        hashes.key(value);
+        assertEquals(1, walks.get());
+    }
+
+    @Test
+    public void childTablesReadThroughTheirParent() {
+        final AtomicInteger walks = new AtomicInteger();
+        final JsonObject shared = counting(read("{\"a\":1}").asJsonObject(), walks);
+        final JsonObject local = counting(read("{\"b\":2}").asJsonObject(), walks);
+        final JsonStructuralHashes parent = new JsonStructuralHashes();
+        final JsonStructuralHashes child = new JsonStructuralHashes(parent);
+
+        parent.hash(shared);
+        child.hash(shared);
+        assertEquals(1, walks.get());
+
+        // what a child computes stays local to it
+        child.hash(local);
+        parent.hash(local);
+        assertEquals(3, walks.get());
+    }
+
+    /**
+     * @return a view of the object counting how many times its members are iterated
+     */
+    private static JsonObject counting(final JsonObject object, final AtomicInteger walks) {
+        return JsonObject.class.cast(Proxy.newProxyInstance(JsonStructuralHashesTest.class.getClassLoader(),
+                new Class<?>[] { JsonObject.class }, (proxy, method, args) -> {
+                    if ("asJsonObject".equals(method.getName())) {
+                        return proxy;
+                    }
+                    if ("entrySet".equals(method.getName())) {
+                        walks.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(object, args);
+                    } catch (final InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.expectFailure;
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class JsonStructureEditorTest {
+    private static final JsonObject DOCUMENT = read("{\"a\":{\"b\":[1,{\"y\":2}],\"c\":{\"z\":3}},\"d\":[4]}")
+            .asJsonObject();
+
+    @Test
+    public void sameResultAsPointerCalls() {
+        JsonStructure expected = DOCUMENT;
+        expected = new JsonPointer("/a/b/0").replace(expected, Json.createValue(10));
+        expected = new JsonPointer("/a/b/-").add(expected, Json.createValue(11));
+        expected = new JsonPointer("/a/b/1/x").add(expected, Json.createValue(12));
+        expected = new JsonPointer("/a/b/1/y").remove(expected);
+        expected = new JsonPointer("/e").add(expected, Json.createValue(13));
+
+        final JsonStructure edited = JsonPointer.edit(DOCUMENT)
+                .replace("/a/b/0", Json.createValue(10))
+                .add("/a/b/-", Json.createValue(11))
+                .add("/a/b/1/x", Json.createValue(12))
+                .remove("/a/b/1/y")
+                .add(new JsonPointer("/e"), Json.createValue(13))
+                .build();
+        assertEquals(expected, edited);
+    }
+
+    @Test
+    public void untouchedValuesAreShared() {
+        final JsonObject edited = JsonPointer.edit(DOCUMENT)
+                .add("/a/b/1/x", Json.createValue(5))
+                .replace("/a/b/0", Json.createValue(6))
+                .build().asJsonObject();
+        assertEquals(read("{\"a\":{\"b\":[6,{\"y\":2,\"x\":5}],\"c\":{\"z\":3}},\"d\":[4]}"), edited);
+        assertSame(DOCUMENT.get("d"), edited.get("d"));
+        assertSame(DOCUMENT.getValue("/a/c"), edited.getValue("/a/c"));
+
+        // the target is left as is
+        assertEquals(read("{\"y\":2}"), DOCUMENT.getValue("/a/b/1"));
+    }
+
+    @Test
+    public void moveAndCopy() {
+        final JsonObject edited = JsonPointer.edit(DOCUMENT)
+                .copy("/d/0", "/a/c")
+                .move("/e", "/a/b")
+                .add("/d/0/w", Json.createValue(7))
+                .build().asJsonObject();
+        assertEquals(read("{\"a\":{\"c\":{\"z\":3}},\"d\":[{\"z\":3,\"w\":7},4],\"e\":[1,{\"y\":2}]}"), edited);
+        // the copy is mutated, not its source
+        assertSame(DOCUMENT.getValue("/a/c"), edited.getValue("/a/c"));
+        assertSame(DOCUMENT.getValue("/a/b"), edited.get("e"));
+    }
+
+    @Test
+    public void getValueSeesPreviousMutations() {
+        final JsonStructureEditor editor = JsonPointer.edit(DOCUMENT).add("/a/b/1/x", Json.createValue(5));
+        assertEquals(Json.createValue(5), editor.getValue("/a/b/1/x"));
+        assertEquals(read("{\"y\":2,\"x\":5}"), editor.getValue("/a/b/1"));
+        assertSame(DOCUMENT.getValue("/a/c"), editor.getValue("/a/c"));
+    }
+
+    @Test
+    public void editorCanBeBuiltAgain() {
+        final JsonStructureEditor editor = JsonPointer.edit(DOCUMENT).add("/x", Json.createValue(1));
+        final JsonStructure first = editor.build();
+        final JsonStructure second = editor.add("/y", Json.createValue(2)).build();
+        assertEquals(new JsonPointer("/x").add(DOCUMENT, Json.createValue(1)), first);
+        assertEquals(new JsonPointer("/y").add(first, Json.createValue(2)), second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void root() {
+        assertEquals(JsonValue.EMPTY_JSON_OBJECT, JsonPointer.edit(DOCUMENT).remove("").build());
+        assertSame(JsonValue.EMPTY_JSON_ARRAY,
+                JsonPointer.edit(DOCUMENT).replace("", JsonValue.EMPTY_JSON_ARRAY).build());
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).replace("", Json.createValue(1)));
+    }
+
+    @Test
+    public void failures() {
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).replace("/missing", Json.createValue(1)));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).remove("/a/b/2"));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).add("/a/b/3", Json.createValue(1)));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).add("/a/b/x", Json.createValue(1)));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).add("/d/0/x", Json.createValue(1)));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).move("/a/c/z", "/a"));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).copy("/x", "/missing"));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).getValue("/missing"));
+        expectFailure(() -> JsonPointer.edit(DOCUMENT).add("a", Json.createValue(1)));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json;
+
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+
+/**
+ * Helpers shared by the spec tests.
+ */
+final class JsonTestSupport {
+    private JsonTestSupport() {
+        // no-op
+    }
+
+    static JsonStructure read(final String json) {
+        try (final JsonReader reader = Json.createReader(new StringReader(json))) {
+            return reader.read();
+        }
+    }
+
+    static void expectFailure(final Runnable evaluation) {
+        try {
+            evaluation.run();
+        } catch (final JsonException e) {
+            return;
+        }
+        fail("expected a JsonException");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json;
+
+import static javax.json.JsonTestSupport.expectFailure;
+import static javax.json.JsonTestSupport.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class JsonWorkingTreeTest {
+    private static final JsonObject DOCUMENT = read("{\"a\":{\"b\":[1,{\"y\":2}],\"c\":{\"z\":3}},\"d\":[4]}")
+            .asJsonObject();
+
+    @Test
+    public void containersAreThawedOnce() {
+        final JsonWorkingTree tree = new JsonWorkingTree(DOCUMENT);
+        for (int i = 0; i < 100; i++) {
+            tree.add(new JsonPointer("/a/b/-"), Json.createValue(i));
+        }
+        tree.replace(new JsonPointer("/a/b/0"), Json.createValue(-1));
+        tree.remove(new JsonPointer("/a/b/1"));
+        // the root, /a and /a/b
+        assertEquals(3, tree.subtreesCopied);
+
+        final JsonObject result = tree.freeze().asJsonObject();
+        assertEquals(100, result.getValue("/a/b").asJsonArray().size() - 1);
+        assertEquals(Json.createValue(-1), result.getValue("/a/b/0"));
+        assertSame(DOCUMENT.get("d"), result.get("d"));
+        assertSame(DOCUMENT.getValue("/a/c"), result.getValue("/a/c"));
+    }
+
+    @Test
+    public void patchSharesUntouchedValues() {
+        final JsonObject result = patch("[{\"op\":\"add\",\"path\":\"/a/b/1/x\",\"value\":5},"
+                + "{\"op\":\"replace\",\"path\":\"/a/b/0\",\"value\":6},"
+                + "{\"op\":\"test\",\"path\":\"/a/b/1\",\"value\":{\"y\":2,\"x\":5}}]").apply(DOCUMENT);
+        assertEquals(read("{\"a\":{\"b\":[6,{\"y\":2,\"x\":5}],\"c\":{\"z\":3}},\"d\":[4]}"), result);
+        assertSame(DOCUMENT.get("d"), result.get("d"));
+        assertSame(DOCUMENT.getValue("/a/c"), result.getValue("/a/c"));
+        // the target is left as is
+        assertEquals(read("{\"y\":2}"), DOCUMENT.getValue("/a/b/1"));
+    }
+
+    @Test
+    public void movedNodesStayThawed() {
+        final JsonWorkingTree tree = new JsonWorkingTree(DOCUMENT);
+        tree.add(new JsonPointer("/a/c/w"), Json.createValue(5));
+        tree.move(new JsonPointer("/a/c"), new JsonPointer("/e"));
+        tree.add(new JsonPointer("/e/v"), Json.createValue(6));
+        // the root, /a and /a/c, the move itself copies nothing
+        assertEquals(3, tree.subtreesCopied);
+        assertEquals(read("{\"a\":{\"b\":[1,{\"y\":2}]},\"d\":[4],\"e\":{\"z\":3,\"w\":5,\"v\":6}}"), tree.freeze());
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        final JsonWorkingTree tree = new JsonWorkingTree(DOCUMENT);
+        tree.add(new JsonPointer("/a/c/w"), Json.createValue(5));
+        tree.copy(new JsonPointer("/a/c"), new JsonPointer("/e"));
+        tree.add(new JsonPointer("/e/v"), Json.createValue(6));
+        tree.remove(new JsonPointer("/a/c/z"));
+        assertEquals(read("{\"a\":{\"b\":[1,{\"y\":2}],\"c\":{\"w\":5}},\"d\":[4],\"e\":{\"z\":3,\"w\":5,\"v\":6}}"),
+                tree.freeze());
+    }
+
+    @Test
+    public void testSeesPendingMutations() {
+        final JsonWorkingTree tree = new JsonWorkingTree(DOCUMENT);
+        tree.add(new JsonPointer("/a/b/-"), read("{\"x\":[7]}"));
+        tree.add(new JsonPointer("/a/b/2/x/-"), Json.createValue(8));
+        assertTrue(tree.test(new JsonPointer("/a/b"), read("[1,{\"y\":2},{\"x\":[7,8]}]")));
+        assertFalse(tree.test(new JsonPointer("/a/b"), read("[1,{\"y\":2},{\"x\":[7]}]")));
+        assertFalse(tree.test(new JsonPointer("/a/b/2"), read("[7,8]")));
+        assertTrue(tree.test(new JsonPointer("/a/c"), read("{\"z\":3}")));
+        assertEquals(read("{\"x\":[7,8]}"), tree.getValue(new JsonPointer("/a/b/2")));
+    }
+
+    @Test
+    public void failures() {
+        expectFailure(() -> new JsonWorkingTree(DOCUMENT).move(new JsonPointer("/a"), new JsonPointer("/a/c/a")));
+        expectFailure(() -> new JsonWorkingTree(DOCUMENT).add(new JsonPointer("/d/0/x"), JsonValue.NULL));
+        expectFailure(() -> new JsonWorkingTree(DOCUMENT).remove(new JsonPointer("/d/1")));
+        expectFailure(() -> new JsonWorkingTree(DOCUMENT).replace(new JsonPointer("/x"), JsonValue.NULL));
+        expectFailure(() -> new JsonWorkingTree(DOCUMENT).copy(new JsonPointer("/x"), new JsonPointer("/y")));
+        expectFailure(() -> new JsonWorkingTree(DOCUMENT).test(new JsonPointer("/x/y"), JsonValue.NULL));
+        expectFailure(() -> patch("[{\"op\":\"test\",\"path\":\"/d/0\",\"value\":5}]").apply(DOCUMENT));
+    }
+
+    private static JsonPatch patch(final String json) {
+        return new JsonPatch(read(json).asJsonArray());
+    }
+}
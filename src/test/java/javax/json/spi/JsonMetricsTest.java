@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json.spi;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonPatch;
+import javax.json.JsonPatchBuilder;
+
+import org.junit.Test;
+
+public class JsonMetricsTest {
+    @Test
+    public void patchApplyAndDiff() {
+        final List<String> events = new ArrayList<>();
+        JsonMetrics.setPatchMetrics(new JsonPatchMetrics() {
+            @Override
+            public void operationApplied(final JsonPatch.Operation operation, final long elapsedNanos,
+                                         final int nodesVisited, final int subtreesCopied) {
+                events.add(operation.operationName() + " " + nodesVisited + " " + subtreesCopied);
+            }
+
+            @Override
+            public void diffComputed(final int sourceNodes, final int targetNodes, final int operationCount,
+                                     final long elapsedNanos) {
+                events.add("diff " + sourceNodes + " " + targetNodes + " " + operationCount);
+            }
+        });
+        try {
+            final JsonObject source = Json.createObjectBuilder()
+                    .add("a", Json.createObjectBuilder().add("b", 1))
+                    .build();
+            final JsonObject target = new JsonPatchBuilder().add("/a/c", 2).replace("/a/b", 3).apply(source);
+            final JsonArray patch = JsonPatch.diff(source, target);
+            assertEquals(2, patch.size());
+
+            // the add walks /a and copies the root and a, the replace finds both thawed already
+            assertEquals("add 1 2", events.get(0));
+            assertEquals("replace 1 0", events.get(1));
+            assertEquals("diff 3 4 2", events.get(2));
+        } finally {
+            JsonMetrics.setPatchMetrics(null);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json.spi;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class JsonProviderTest {
+    private final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+    @After
+    public void resetLoader() {
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @Test
+    public void providerIsCachedPerLoader() {
+        final JsonProvider provider = JsonProvider.provider();
+        assertSame(provider, JsonProvider.provider());
+
+        final ClassLoader child = new URLClassLoader(new URL[0], loader);
+        Thread.currentThread().setContextClassLoader(child);
+        final JsonProvider childProvider = JsonProvider.provider();
+        assertNotSame(provider, childProvider);
+        assertSame(childProvider, JsonProvider.provider());
+
+        // back to the first loader, the single entry fast path must not return the other provider
+        Thread.currentThread().setContextClassLoader(loader);
+        assertSame(provider, JsonProvider.provider());
+        Thread.currentThread().setContextClassLoader(child);
+        assertSame(childProvider, JsonProvider.provider());
+    }
+
+    @Test
+    public void invalidateOneLoader() {
+        final JsonProvider provider = JsonProvider.provider();
+        final ClassLoader child = new URLClassLoader(new URL[0], loader);
+        Thread.currentThread().setContextClassLoader(child);
+        final JsonProvider childProvider = JsonProvider.provider();
+
+        JsonProvider.invalidateProviderCache(child);
+        assertNotSame(childProvider, JsonProvider.provider());
+
+        Thread.currentThread().setContextClassLoader(loader);
+        assertSame(provider, JsonProvider.provider());
+    }
+
+    @Test
+    public void invalidateAll() {
+        final JsonProvider provider = JsonProvider.provider();
+        final ClassLoader child = new URLClassLoader(new URL[0], loader);
+        Thread.currentThread().setContextClassLoader(child);
+        final JsonProvider childProvider = JsonProvider.provider();
+
+        JsonProvider.invalidateProviderCache();
+        assertNotSame(childProvider, JsonProvider.provider());
+        Thread.currentThread().setContextClassLoader(loader);
+        assertNotSame(provider, JsonProvider.provider());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package javax.json.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonMergePatch;
+import javax.json.JsonObject;
+import javax.json.JsonPatchBuilder;
+import javax.json.JsonPointer;
+
+import org.junit.Test;
+
+public class JsonTraceTest {
+    private static final JsonObject DOCUMENT = Json.createObjectBuilder()
+            .add("a", Json.createObjectBuilder().add("b", 1))
+            .build();
+
+    @Test
+    public void listenerReceivesEvents() {
+        final List<String> events = new ArrayList<>();
+        JsonTrace.setListener((operation, pointer, nodeCount, elapsedNanos) -> {
+            assertTrue(elapsedNanos >= 0);
+            events.add(operation + " " + pointer + " " + nodeCount);
+        });
+        try {
+            assertEquals(Json.createValue(1), new JsonPointer("/a/b").getValue(DOCUMENT));
+            new JsonPointer("/a/c").add(DOCUMENT, Json.createValue(2));
+            new JsonPatchBuilder().add("/a/c", 2).remove("/a/b").apply(DOCUMENT);
+            JsonMergePatch.mergePatch(DOCUMENT, Json.createObjectBuilder().addNull("a").add("d", 3).build());
+
+            assertEquals("POINTER_GET /a/b 2", events.get(0));
+            assertEquals("POINTER_ADD /a/c 2", events.get(1));
+            assertEquals("PATCH_APPLY null 2", events.get(2));
+            assertEquals("MERGE_PATCH null 2", events.get(3));
+            assertEquals(4, events.size());
+        } finally {
+            JsonTrace.setListener(null);
+        }
+    }
+
+    @Test
+    public void nothingIsTracedWithoutAListener() {
+        final List<String> events = new ArrayList<>();
+        JsonTrace.setListener((operation, pointer, nodeCount, elapsedNanos) -> events.add(operation.name()));
+        new JsonPointer("/a").getValue(DOCUMENT);
+        JsonTrace.setListener(null);
+
+        new JsonPointer("/a/b").getValue(DOCUMENT);
+        new JsonPointer("/a/c").add(DOCUMENT, Json.createValue(2));
+        new JsonPatchBuilder().remove("/a/b").apply(DOCUMENT);
+        JsonMergePatch.mergePatch(DOCUMENT, Json.createObjectBuilder().addNull("a").build());
+        assertEquals(1, events.size());
+    }
+}
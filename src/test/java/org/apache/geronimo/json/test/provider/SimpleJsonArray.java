@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+final class SimpleJsonArray extends AbstractList<JsonValue> implements JsonArray, RandomAccess {
+    private final JsonValue[] values;
+
+    SimpleJsonArray(final List<JsonValue> values) {
+        this.values = values.toArray(new JsonValue[values.size()]);
+    }
+
+    @Override
+    public JsonValue get(final int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public JsonObject getJsonObject(final int index) {
+        return JsonObject.class.cast(values[index]);
+    }
+
+    @Override
+    public JsonArray getJsonArray(final int index) {
+        return JsonArray.class.cast(values[index]);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(final int index) {
+        return JsonNumber.class.cast(values[index]);
+    }
+
+    @Override
+    public JsonString getJsonString(final int index) {
+        return JsonString.class.cast(values[index]);
+    }
+
+    @Override
+    public <T extends JsonValue> List<T> getValuesAs(final Class<T> clazz) {
+        final List<T> list = new ArrayList<>(values.length);
+        for (final JsonValue value : values) {
+            list.add(clazz.cast(value));
+        }
+        return list;
+    }
+
+    @Override
+    public String getString(final int index) {
+        return getJsonString(index).getString();
+    }
+
+    @Override
+    public String getString(final int index, final String defaultValue) {
+        final JsonValue value = index >= 0 && index < values.length ? values[index] : null;
+        return value instanceof JsonString ? JsonString.class.cast(value).getString() : defaultValue;
+    }
+
+    @Override
+    public int getInt(final int index) {
+        return getJsonNumber(index).intValue();
+    }
+
+    @Override
+    public int getInt(final int index, final int defaultValue) {
+        final JsonValue value = index >= 0 && index < values.length ? values[index] : null;
+        return value instanceof JsonNumber ? JsonNumber.class.cast(value).intValue() : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(final int index) {
+        final JsonValue value = values[index];
+        if (value == JsonValue.TRUE) {
+            return true;
+        }
+        if (value == JsonValue.FALSE) {
+            return false;
+        }
+        throw new ClassCastException(index + " is not a boolean");
+    }
+
+    @Override
+    public boolean getBoolean(final int index, final boolean defaultValue) {
+        final JsonValue value = index >= 0 && index < values.length ? values[index] : null;
+        return value == JsonValue.TRUE || (value != JsonValue.FALSE && defaultValue);
+    }
+
+    @Override
+    public boolean isNull(final int index) {
+        return JsonValue.NULL.equals(values[index]);
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.ARRAY;
+    }
+
+    @Override
+    public String toString() {
+        return SimpleJsonGenerator.toString(this);
+    }
+}
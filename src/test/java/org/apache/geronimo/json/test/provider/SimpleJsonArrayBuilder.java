@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+final class SimpleJsonArrayBuilder implements JsonArrayBuilder {
+    private List<JsonValue> values;
+
+    SimpleJsonArrayBuilder() {
+        values = new ArrayList<>();
+    }
+
+    SimpleJsonArrayBuilder(final Collection<JsonValue> initial) {
+        values = new ArrayList<>(initial);
+    }
+
+    private static JsonValue checked(final JsonValue value) {
+        if (value == null) {
+            throw new NullPointerException("value is null");
+        }
+        return value;
+    }
+
+    private static JsonValue number(final BigDecimal value) {
+        return new SimpleJsonNumber(value);
+    }
+
+    @Override
+    public JsonArrayBuilder add(final JsonValue value) {
+        values.add(checked(value));
+        return this;
+    }
+
+    @Override
+    public JsonArrayBuilder add(final String value) {
+        return add(new SimpleJsonString(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final BigDecimal value) {
+        return add(number(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final BigInteger value) {
+        return add(number(new BigDecimal(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int value) {
+        return add(number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final long value) {
+        return add(number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final double value) {
+        return add(number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final boolean value) {
+        return add(value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    @Override
+    public JsonArrayBuilder addNull() {
+        return add(JsonValue.NULL);
+    }
+
+    @Override
+    public JsonArrayBuilder add(final JsonObjectBuilder builder) {
+        return add(builder.build());
+    }
+
+    @Override
+    public JsonArrayBuilder add(final JsonArrayBuilder builder) {
+        return add(builder.build());
+    }
+
+    @Override
+    public JsonArrayBuilder addAll(final JsonArrayBuilder builder) {
+        values.addAll(builder.build());
+        return this;
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final JsonValue value) {
+        values.add(index, checked(value));
+        return this;
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final String value) {
+        return add(index, new SimpleJsonString(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final BigDecimal value) {
+        return add(index, number(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final BigInteger value) {
+        return add(index, number(new BigDecimal(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final int value) {
+        return add(index, number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final long value) {
+        return add(index, number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final double value) {
+        return add(index, number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final boolean value) {
+        return add(index, value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    @Override
+    public JsonArrayBuilder addNull(final int index) {
+        return add(index, JsonValue.NULL);
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final JsonObjectBuilder builder) {
+        return add(index, builder.build());
+    }
+
+    @Override
+    public JsonArrayBuilder add(final int index, final JsonArrayBuilder builder) {
+        return add(index, builder.build());
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final JsonValue value) {
+        values.set(index, checked(value));
+        return this;
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final String value) {
+        return set(index, new SimpleJsonString(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final BigDecimal value) {
+        return set(index, number(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final BigInteger value) {
+        return set(index, number(new BigDecimal(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final int value) {
+        return set(index, number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final long value) {
+        return set(index, number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final double value) {
+        return set(index, number(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final boolean value) {
+        return set(index, value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    @Override
+    public JsonArrayBuilder setNull(final int index) {
+        return set(index, JsonValue.NULL);
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final JsonObjectBuilder builder) {
+        return set(index, builder.build());
+    }
+
+    @Override
+    public JsonArrayBuilder set(final int index, final JsonArrayBuilder builder) {
+        return set(index, builder.build());
+    }
+
+    @Override
+    public JsonArrayBuilder remove(final int index) {
+        values.remove(index);
+        return this;
+    }
+
+    @Override
+    public JsonArray build() {
+        final JsonArray array = new SimpleJsonArray(values);
+        values = new ArrayList<>();
+        return array;
+    }
+}
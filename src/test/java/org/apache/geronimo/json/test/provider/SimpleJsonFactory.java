@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * All factory flavours in one class, the stand-in provider has no configuration to honor.
+ */
+final class SimpleJsonFactory implements JsonParserFactory, JsonGeneratorFactory, JsonReaderFactory,
+        JsonWriterFactory, JsonBuilderFactory {
+
+    private final Map<String, ?> config;
+
+    SimpleJsonFactory(final Map<String, ?> config) {
+        this.config = config == null ? Collections.<String, Object>emptyMap()
+                : Collections.unmodifiableMap(new HashMap<String, Object>(config));
+    }
+
+    @Override
+    public Map<String, ?> getConfigInUse() {
+        return config;
+    }
+
+    @Override
+    public JsonParser createParser(final Reader reader) {
+        return new SimpleJsonParser(reader);
+    }
+
+    @Override
+    public JsonParser createParser(final InputStream in) {
+        return createParser(in, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public JsonParser createParser(final InputStream in, final Charset charset) {
+        return new SimpleJsonParser(new InputStreamReader(in, charset));
+    }
+
+    @Override
+    public JsonParser createParser(final JsonObject obj) {
+        return new SimpleJsonParser(new StringReader(obj.toString()));
+    }
+
+    @Override
+    public JsonParser createParser(final JsonArray array) {
+        return new SimpleJsonParser(new StringReader(array.toString()));
+    }
+
+    @Override
+    public JsonGenerator createGenerator(final Writer writer) {
+        return new SimpleJsonGenerator(writer);
+    }
+
+    @Override
+    public JsonGenerator createGenerator(final OutputStream out) {
+        return createGenerator(out, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public JsonGenerator createGenerator(final OutputStream out, final Charset charset) {
+        return new SimpleJsonGenerator(new OutputStreamWriter(out, charset));
+    }
+
+    @Override
+    public JsonReader createReader(final Reader reader) {
+        return new SimpleJsonReader(createParser(reader));
+    }
+
+    @Override
+    public JsonReader createReader(final InputStream in) {
+        return new SimpleJsonReader(createParser(in));
+    }
+
+    @Override
+    public JsonReader createReader(final InputStream in, final Charset charset) {
+        return new SimpleJsonReader(createParser(in, charset));
+    }
+
+    @Override
+    public JsonWriter createWriter(final Writer writer) {
+        return new SimpleJsonWriter(createGenerator(writer));
+    }
+
+    @Override
+    public JsonWriter createWriter(final OutputStream out) {
+        return new SimpleJsonWriter(createGenerator(out));
+    }
+
+    @Override
+    public JsonWriter createWriter(final OutputStream out, final Charset charset) {
+        return new SimpleJsonWriter(createGenerator(out, charset));
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder() {
+        return new SimpleJsonObjectBuilder();
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder() {
+        return new SimpleJsonArrayBuilder();
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder(final JsonObject object) {
+        return new SimpleJsonObjectBuilder(object);
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(final JsonArray array) {
+        return new SimpleJsonArrayBuilder(array);
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerationException;
+import javax.json.stream.JsonGenerator;
+
+final class SimpleJsonGenerator implements JsonGenerator {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private final Writer writer;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+    private boolean[] inObject = new boolean[16];
+    private boolean[] first = new boolean[16];
+    private int depth;
+
+    SimpleJsonGenerator(final Writer writer) {
+        this.writer = writer;
+    }
+
+    static String toString(final JsonValue value) {
+        final StringBuilder sb = new StringBuilder();
+        appendValue(sb, value);
+        return sb.toString();
+    }
+
+    static void appendQuoted(final StringBuilder sb, final String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    static void appendValue(final StringBuilder sb, final JsonValue value) {
+        switch (value.getValueType()) {
+            case OBJECT: {
+                sb.append('{');
+                boolean firstEntry = true;
+                for (final Map.Entry<String, JsonValue> entry : value.asJsonObject().entrySet()) {
+                    if (!firstEntry) {
+                        sb.append(',');
+                    }
+                    firstEntry = false;
+                    appendQuoted(sb, entry.getKey());
+                    sb.append(':');
+                    appendValue(sb, entry.getValue());
+                }
+                sb.append('}');
+                break;
+            }
+            case ARRAY: {
+                sb.append('[');
+                boolean firstEntry = true;
+                for (final JsonValue item : value.asJsonArray()) {
+                    if (!firstEntry) {
+                        sb.append(',');
+                    }
+                    firstEntry = false;
+                    appendValue(sb, item);
+                }
+                sb.append(']');
+                break;
+            }
+            case STRING:
+                appendQuoted(sb, JsonString.class.cast(value).getString());
+                break;
+            case NUMBER:
+                sb.append(JsonNumber.class.cast(value).bigDecimalValue().toString());
+                break;
+            case TRUE:
+                sb.append("true");
+                break;
+            case FALSE:
+                sb.append("false");
+                break;
+            default:
+                sb.append("null");
+        }
+    }
+
+    private void push(final boolean object) {
+        if (depth == inObject.length) {
+            inObject = Arrays.copyOf(inObject, depth * 2);
+            first = Arrays.copyOf(first, depth * 2);
+        }
+        inObject[depth] = object;
+        first[depth] = true;
+        depth++;
+    }
+
+    private void separator() {
+        if (depth > 0) {
+            if (!first[depth - 1]) {
+                buffer.append(',');
+            }
+            first[depth - 1] = false;
+        }
+    }
+
+    private void beforeValue() {
+        if (depth > 0 && inObject[depth - 1]) {
+            throw new JsonGenerationException("a name is required inside an object");
+        }
+        separator();
+    }
+
+    private void beforeName(final String name) {
+        if (depth == 0 || !inObject[depth - 1]) {
+            throw new JsonGenerationException("names are only allowed inside an object");
+        }
+        separator();
+        appendQuoted(buffer, name);
+        buffer.append(':');
+    }
+
+    private JsonGenerator afterWrite() {
+        if (buffer.length() > FLUSH_THRESHOLD) {
+            drain();
+        }
+        return this;
+    }
+
+    private void drain() {
+        try {
+            writer.write(buffer.toString());
+        } catch (final IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+        buffer.setLength(0);
+    }
+
+    @Override
+    public JsonGenerator writeStartObject() {
+        beforeValue();
+        buffer.append('{');
+        push(true);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject(final String name) {
+        beforeName(name);
+        buffer.append('{');
+        push(true);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray() {
+        beforeValue();
+        buffer.append('[');
+        push(false);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray(final String name) {
+        beforeName(name);
+        buffer.append('[');
+        push(false);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final JsonValue value) {
+        beforeName(name);
+        appendValue(buffer, value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final String value) {
+        beforeName(name);
+        appendQuoted(buffer, value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final BigInteger value) {
+        beforeName(name);
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final BigDecimal value) {
+        beforeName(name);
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final int value) {
+        beforeName(name);
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final long value) {
+        beforeName(name);
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final double value) {
+        beforeName(name);
+        buffer.append(BigDecimal.valueOf(value));
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final boolean value) {
+        beforeName(name);
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator writeNull(final String name) {
+        beforeName(name);
+        buffer.append("null");
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+        if (depth == 0) {
+            throw new JsonGenerationException("no structure to end");
+        }
+        depth--;
+        buffer.append(inObject[depth] ? '}' : ']');
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final JsonValue value) {
+        beforeValue();
+        appendValue(buffer, value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final String value) {
+        beforeValue();
+        appendQuoted(buffer, value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final BigDecimal value) {
+        beforeValue();
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final BigInteger value) {
+        beforeValue();
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final int value) {
+        beforeValue();
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final long value) {
+        beforeValue();
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final double value) {
+        beforeValue();
+        buffer.append(BigDecimal.valueOf(value));
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator write(final boolean value) {
+        beforeValue();
+        buffer.append(value);
+        return afterWrite();
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+        beforeValue();
+        buffer.append("null");
+        return afterWrite();
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            writer.flush();
+        } catch (final IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            writer.close();
+        } catch (final IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+}
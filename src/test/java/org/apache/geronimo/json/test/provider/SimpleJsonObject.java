@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+final class SimpleJsonObject extends AbstractMap<String, JsonValue> implements JsonObject {
+    private final Map<String, JsonValue> values;
+
+    SimpleJsonObject(final Map<String, JsonValue> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        return values.entrySet();
+    }
+
+    @Override
+    public JsonValue get(final Object key) {
+        return values.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public JsonArray getJsonArray(final String name) {
+        return JsonArray.class.cast(values.get(name));
+    }
+
+    @Override
+    public JsonObject getJsonObject(final String name) {
+        return JsonObject.class.cast(values.get(name));
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(final String name) {
+        return JsonNumber.class.cast(values.get(name));
+    }
+
+    @Override
+    public JsonString getJsonString(final String name) {
+        return JsonString.class.cast(values.get(name));
+    }
+
+    @Override
+    public String getString(final String name) {
+        return getJsonString(name).getString();
+    }
+
+    @Override
+    public String getString(final String name, final String defaultValue) {
+        final JsonValue value = values.get(name);
+        return value instanceof JsonString ? JsonString.class.cast(value).getString() : defaultValue;
+    }
+
+    @Override
+    public int getInt(final String name) {
+        return getJsonNumber(name).intValue();
+    }
+
+    @Override
+    public int getInt(final String name, final int defaultValue) {
+        final JsonValue value = values.get(name);
+        return value instanceof JsonNumber ? JsonNumber.class.cast(value).intValue() : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(final String name) {
+        final JsonValue value = values.get(name);
+        if (value == JsonValue.TRUE) {
+            return true;
+        }
+        if (value == JsonValue.FALSE) {
+            return false;
+        }
+        throw new ClassCastException(name + " is not a boolean");
+    }
+
+    @Override
+    public boolean getBoolean(final String name, final boolean defaultValue) {
+        final JsonValue value = values.get(name);
+        return value == JsonValue.TRUE || (value != JsonValue.FALSE && defaultValue);
+    }
+
+    @Override
+    public boolean isNull(final String name) {
+        return JsonValue.NULL.equals(values.get(name));
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.OBJECT;
+    }
+
+    @Override
+    public String toString() {
+        return SimpleJsonGenerator.toString(this);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+final class SimpleJsonObjectBuilder implements JsonObjectBuilder {
+    private Map<String, JsonValue> values;
+
+    SimpleJsonObjectBuilder() {
+        values = new LinkedHashMap<>();
+    }
+
+    SimpleJsonObjectBuilder(final Map<String, JsonValue> initial) {
+        values = new LinkedHashMap<>(initial);
+    }
+
+    private JsonObjectBuilder put(final String name, final JsonValue value) {
+        if (name == null || value == null) {
+            throw new NullPointerException("name or value is null");
+        }
+        values.put(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final JsonValue value) {
+        return put(name, value);
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final String value) {
+        return put(name, new SimpleJsonString(value));
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final BigInteger value) {
+        return put(name, new SimpleJsonNumber(new BigDecimal(value)));
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final BigDecimal value) {
+        return put(name, new SimpleJsonNumber(value));
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final int value) {
+        return put(name, new SimpleJsonNumber(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final long value) {
+        return put(name, new SimpleJsonNumber(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final double value) {
+        return put(name, new SimpleJsonNumber(BigDecimal.valueOf(value)));
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final boolean value) {
+        return put(name, value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    @Override
+    public JsonObjectBuilder addNull(final String name) {
+        return put(name, JsonValue.NULL);
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final JsonObjectBuilder builder) {
+        return put(name, builder.build());
+    }
+
+    @Override
+    public JsonObjectBuilder add(final String name, final JsonArrayBuilder builder) {
+        return put(name, builder.build());
+    }
+
+    @Override
+    public JsonObjectBuilder addAll(final JsonObjectBuilder builder) {
+        values.putAll(builder.build());
+        return this;
+    }
+
+    @Override
+    public JsonObjectBuilder remove(final String name) {
+        values.remove(name);
+        return this;
+    }
+
+    @Override
+    public JsonObject build() {
+        final JsonObject object = new SimpleJsonObject(values);
+        values = new LinkedHashMap<>();
+        return object;
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * Straight forward pull parser, good enough for the tests and to feed benchmarks, not tuned itself.
+ */
+final class SimpleJsonParser implements JsonParser {
+    private final Reader reader;
+    private final char[] buf = new char[8192];
+    private int pos;
+    private int len;
+    private long offset;
+
+    private boolean[] inObject = new boolean[16];
+    private int depth;
+    private Event current;
+    private boolean done;
+
+    private final StringBuilder text = new StringBuilder();
+    private String string;
+
+    SimpleJsonParser(final Reader reader) {
+        this.reader = reader;
+    }
+
+    private int read() {
+        if (pos == len) {
+            try {
+                len = reader.read(buf, 0, buf.length);
+            } catch (final IOException e) {
+                throw new JsonException(e.getMessage(), e);
+            }
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return -1;
+            }
+        }
+        offset++;
+        return buf[pos++];
+    }
+
+    private void unread() {
+        pos--;
+        offset--;
+    }
+
+    private int skipWhitespaces() {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private JsonParsingException error(final String message) {
+        return new JsonParsingException(message, getLocation());
+    }
+
+    private void expect(final int actual, final char expected) {
+        if (actual != expected) {
+            throw error("expected '" + expected + "' but got " + (actual < 0 ? "EOF" : "'" + (char) actual + "'"));
+        }
+    }
+
+    private void push(final boolean object) {
+        if (depth == inObject.length) {
+            inObject = Arrays.copyOf(inObject, depth * 2);
+        }
+        inObject[depth++] = object;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !done;
+    }
+
+    @Override
+    public Event next() {
+        if (done) {
+            throw new NoSuchElementException();
+        }
+        int c = skipWhitespaces();
+        if (depth == 0) {
+            current = value(c);
+        } else if (inObject[depth - 1]) {
+            if (current == Event.KEY_NAME) {
+                expect(c, ':');
+                current = value(skipWhitespaces());
+            } else if (c == '}') {
+                current = end();
+            } else {
+                if (current != Event.START_OBJECT) {
+                    expect(c, ',');
+                    c = skipWhitespaces();
+                }
+                expect(c, '"');
+                string = readString();
+                current = Event.KEY_NAME;
+            }
+        } else {
+            if (c == ']') {
+                current = end();
+            } else {
+                if (current != Event.START_ARRAY) {
+                    expect(c, ',');
+                    c = skipWhitespaces();
+                }
+                current = value(c);
+            }
+        }
+        if (depth == 0) {
+            done = true;
+        }
+        return current;
+    }
+
+    private Event end() {
+        depth--;
+        return inObject[depth] ? Event.END_OBJECT : Event.END_ARRAY;
+    }
+
+    private Event value(final int c) {
+        switch (c) {
+            case '{':
+                push(true);
+                return Event.START_OBJECT;
+            case '[':
+                push(false);
+                return Event.START_ARRAY;
+            case '"':
+                string = readString();
+                return Event.VALUE_STRING;
+            case 't':
+                literal("rue");
+                return Event.VALUE_TRUE;
+            case 'f':
+                literal("alse");
+                return Event.VALUE_FALSE;
+            case 'n':
+                literal("ull");
+                return Event.VALUE_NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    string = readNumber(c);
+                    return Event.VALUE_NUMBER;
+                }
+                throw error("unexpected " + (c < 0 ? "EOF" : "'" + (char) c + "'"));
+        }
+    }
+
+    private void literal(final String rest) {
+        for (int i = 0; i < rest.length(); i++) {
+            expect(read(), rest.charAt(i));
+        }
+    }
+
+    private String readNumber(final int first) {
+        text.setLength(0);
+        text.append((char) first);
+        int c;
+        while ((c = read()) >= 0) {
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                text.append((char) c);
+            } else {
+                unread();
+                break;
+            }
+        }
+        return text.toString();
+    }
+
+    private String readString() {
+        text.setLength(0);
+        int c;
+        while ((c = read()) != '"') {
+            if (c < 0) {
+                throw error("unterminated string");
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'n':
+                        text.append('\n');
+                        break;
+                    case 'r':
+                        text.append('\r');
+                        break;
+                    case 't':
+                        text.append('\t');
+                        break;
+                    case 'b':
+                        text.append('\b');
+                        break;
+                    case 'f':
+                        text.append('\f');
+                        break;
+                    case 'u': {
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            code = code * 16 + Character.digit(read(), 16);
+                        }
+                        text.append((char) code);
+                        break;
+                    }
+                    default:
+                        text.append((char) c);
+                }
+            } else {
+                text.append((char) c);
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String getString() {
+        if (current != Event.KEY_NAME && current != Event.VALUE_STRING && current != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(current + " has no string");
+        }
+        return string;
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        return getBigDecimal().scale() == 0;
+    }
+
+    @Override
+    public int getInt() {
+        return getBigDecimal().intValue();
+    }
+
+    @Override
+    public long getLong() {
+        return getBigDecimal().longValue();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        if (current != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(current + " is not a number");
+        }
+        return new BigDecimal(string);
+    }
+
+    @Override
+    public JsonValue getValue() {
+        if (current == null) {
+            throw new IllegalStateException("next() not called");
+        }
+        switch (current) {
+            case START_OBJECT:
+                return getObject();
+            case START_ARRAY:
+                return getArray();
+            case KEY_NAME:
+            case VALUE_STRING:
+                return new SimpleJsonString(string);
+            case VALUE_NUMBER:
+                return new SimpleJsonNumber(getBigDecimal());
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            default:
+                throw new IllegalStateException(current + " has no value");
+        }
+    }
+
+    @Override
+    public JsonObject getObject() {
+        if (current != Event.START_OBJECT) {
+            throw new IllegalStateException(current + " is not START_OBJECT");
+        }
+        final Map<String, JsonValue> values = new LinkedHashMap<>();
+        while (next() != Event.END_OBJECT) {
+            final String key = string;
+            next();
+            values.put(key, getValue());
+        }
+        return new SimpleJsonObject(values);
+    }
+
+    @Override
+    public JsonArray getArray() {
+        if (current != Event.START_ARRAY) {
+            throw new IllegalStateException(current + " is not START_ARRAY");
+        }
+        final List<JsonValue> values = new ArrayList<>();
+        while (next() != Event.END_ARRAY) {
+            values.add(getValue());
+        }
+        return new SimpleJsonArray(values);
+    }
+
+    @Override
+    public void skipObject() {
+        skip(true);
+    }
+
+    @Override
+    public void skipArray() {
+        skip(false);
+    }
+
+    private void skip(final boolean object) {
+        if (depth == 0 || inObject[depth - 1] != object) {
+            return;
+        }
+        final int target = depth - 1;
+        while (depth > target) {
+            next();
+        }
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        final long streamOffset = offset;
+        return new JsonLocation() {
+            @Override
+            public long getLineNumber() {
+                return -1;
+            }
+
+            @Override
+            public long getColumnNumber() {
+                return -1;
+            }
+
+            @Override
+            public long getStreamOffset() {
+                return streamOffset;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (final IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.geronimo.json.test.provider;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonString;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Minimal provider so the spec tests run without a JSON-P implementation,
+ * registered through META-INF/services. Shipped in the test-jar, the benchmarks run against it too
+ * so they only measure the spec code.
+ */
+public class SimpleJsonProvider extends JsonProvider {
+    private final SimpleJsonFactory factory = new SimpleJsonFactory(null);
+
+    @Override
+    public JsonParser createParser(final Reader reader) {
+        return factory.createParser(reader);
+    }
+
+    @Override
+    public JsonParser createParser(final InputStream in) {
+        return factory.createParser(in);
+    }
+
+    @Override
+    public JsonParserFactory createParserFactory(final Map<String, ?> config) {
+        return new SimpleJsonFactory(config);
+    }
+
+    @Override
+    public JsonGenerator createGenerator(final Writer writer) {
+        return factory.createGenerator(writer);
+    }
+
+    @Override
+    public JsonGenerator createGenerator(final OutputStream out) {
+        return factory.createGenerator(out);
+    }
+
+    @Override
+    public JsonGeneratorFactory createGeneratorFactory(final Map<String, ?> config) {
+        return new SimpleJsonFactory(config);
+    }
+
+    @Override
+    public JsonReader createReader(final Reader reader) {
+        return factory.createReader(reader);
+    }
+
+    @Override
+    public JsonReader createReader(final InputStream in) {
+        return factory.createReader(in);
+    }
+
+    @Override
+    public JsonWriter createWriter(final Writer writer) {
+        return factory.createWriter(writer);
+    }
+
+    @Override
+    public JsonWriter createWriter(final OutputStream out) {
+        return factory.createWriter(out);
+    }
+
+    @Override
+    public JsonWriterFactory createWriterFactory(final Map<String, ?> config) {
+        return new SimpleJsonFactory(config);
+    }
+
+    @Override
+    public JsonReaderFactory createReaderFactory(final Map<String, ?> config) {
+        return new SimpleJsonFactory(config);
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder() {
+        return factory.createObjectBuilder();
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder() {
+        return factory.createArrayBuilder();
+    }
+
+    @Override
+    public JsonBuilderFactory createBuilderFactory(final Map<String, ?> config) {
+        return new SimpleJsonFactory(config);
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder(final JsonObject object) {
+        return factory.createObjectBuilder(object);
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(final JsonArray array) {
+        return factory.createArrayBuilder(array);
+    }
+
+    @Override
+    public JsonString createValue(final String value) {
+        return new SimpleJsonString(value);
+    }
+
+    @Override
+    public JsonNumber createValue(final int value) {
+        return new SimpleJsonNumber(BigDecimal.valueOf(value));
+    }
+
+    @Override
+    public JsonNumber createValue(final long value) {
+        return new SimpleJsonNumber(BigDecimal.valueOf(value));
+    }
+
+    @Override
+    public JsonNumber createValue(final double value) {
+        return new SimpleJsonNumber(BigDecimal.valueOf(value));
+    }
+
+    @Override
+    public JsonNumber createValue(final BigDecimal value) {
+        return new SimpleJsonNumber(value);
+    }
+
+    @Override
+    public JsonNumber createValue(final BigInteger value) {
+        return new SimpleJsonNumber(new BigDecimal(value));
+    }
+}